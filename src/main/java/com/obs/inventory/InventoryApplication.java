@@ -1,9 +1,14 @@
 package com.obs.inventory;
 
+import com.obs.inventory.repository.BaseJpaRepository;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableJpaRepositories(repositoryBaseClass = BaseJpaRepository.class)
 public class InventoryApplication {
 
 	public static void main(String[] args) {
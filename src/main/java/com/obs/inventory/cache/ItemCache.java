@@ -0,0 +1,126 @@
+package com.obs.inventory.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.obs.inventory.dto.ItemCacheStatsDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-process copy of item prices for the order / inventory write paths.
+ *
+ * A present entry also means the item exists, so a writer can use a JPA reference for the
+ * foreign key instead of selecting the item row. Entries are dropped by Caffeine's size policy
+ * once {@code inventory.item-cache.max-size} is reached, and {@code inventory.item-cache.ttl}
+ * after they were loaded. Item updates and deletes invalidate their entry after commit; the TTL
+ * bounds how long another instance can keep a stale price.
+ *
+ * A reader takes a {@link #generation()} stamp before it selects the item and hands it to put. An
+ * invalidate of that item after the stamp means the row the reader saw may already be outdated, so
+ * the put is dropped instead of caching the old price for a whole TTL. Put and invalidate of one
+ * item are atomic on that item's entry only, other items never wait.
+ */
+@Component
+public class ItemCache {
+
+    private final int maxSize;
+
+    private final Cache<Integer, BigDecimal> items;
+
+    // itemId -> generation of its last invalidate, at most maxSize entries
+    private final Cache<Integer, Long> invalidatedAt;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    // newest generation dropped from invalidatedAt, stamps before it are refused
+    private final AtomicLong forgottenUpTo = new AtomicLong();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    @Autowired
+    public ItemCache(@Value("${inventory.item-cache.max-size:10000}") int maxSize,
+                     @Value("${inventory.item-cache.ttl:PT10M}") Duration ttl) {
+        this(maxSize, ttl, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    // tests: manual clock, maintenance on the calling thread
+    ItemCache(int maxSize, Duration ttl, LongSupplier clock) {
+        this(maxSize, ttl, clock::getAsLong, Runnable::run);
+    }
+
+    private ItemCache(int maxSize, Duration ttl, Ticker ticker, Executor executor) {
+        this.maxSize = maxSize;
+        this.items = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+        this.invalidatedAt = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .executor(executor)
+                // runs inside the removal, before the entry is gone, see put
+                .<Integer, Long>evictionListener((itemId, invalidated, cause) ->
+                        forgottenUpTo.accumulateAndGet(invalidated, Math::max))
+                .build();
+    }
+
+    public Optional<BigDecimal> getPrice(Integer itemId) {
+        return Optional.ofNullable(items.getIfPresent(itemId));
+    }
+
+    // stamp to take before reading an item from the database, see put
+    public long generation() {
+        return generation.get();
+    }
+
+    // price read after the stamp was taken; ignored when the item was invalidated since
+    public void put(Integer itemId, BigDecimal price, long stamp) {
+        items.asMap().compute(itemId, (id, current) -> invalidatedSince(id, stamp) ? current : price);
+    }
+
+    public void invalidate(Integer itemId) {
+        items.asMap().compute(itemId, (id, current) -> {
+            invalidatedAt.put(id, generation.incrementAndGet());
+            if (current != null) {
+                invalidations.increment();
+            }
+            return null;
+        });
+    }
+
+    public ItemCacheStatsDto stats() {
+        // expired entries leave the size (and count as evictions) on the next maintenance, run it now
+        items.cleanUp();
+        CacheStats stats = items.stats();
+        return ItemCacheStatsDto.builder()
+                .size((int) items.estimatedSize())
+                .maxSize(maxSize)
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .evictions(stats.evictionCount())
+                .invalidations(invalidations.sum())
+                .build();
+    }
+
+    // ============ HELPER ============
+
+    // the per-item entry first: forgottenUpTo is raised before an entry leaves invalidatedAt
+    private boolean invalidatedSince(Integer itemId, long stamp) {
+        Long invalidated = invalidatedAt.getIfPresent(itemId);
+        return (invalidated != null && invalidated > stamp) || stamp < forgottenUpTo.get();
+    }
+}
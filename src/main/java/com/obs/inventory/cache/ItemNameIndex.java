@@ -0,0 +1,356 @@
+package com.obs.inventory.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * In-process trigram index over item names for the catalog search box.
+ *
+ * A term of three characters or more is looked up by intersecting the posting lists of its
+ * trigrams, then checked against the stored name, so any substring matches. Shorter terms match
+ * the start of a word only, through one- and two-character word prefix grams. Posting lists are
+ * sorted int arrays, about one int per trigram per item.
+ *
+ * Matches are ranked: exact name, name prefix, word prefix, any other substring; then shorter
+ * name first, then id. The item service keeps the index in step with creates, updates and deletes
+ * after they commit, and loads it from the items table on startup.
+ *
+ * A rebuild fills a new index next to the live one and swaps it in, so searches never see it half
+ * loaded. A put or remove that lands while the rows are read goes into both, and the row read for
+ * that id, which may predate it, is dropped.
+ */
+@Component
+public class ItemNameIndex {
+
+    // marks a gram anchored at the start of a word
+    private static final char WORD_START = '\u0002';
+
+    private static final int RANK_EXACT = 0;
+
+    private static final int RANK_PREFIX = 1;
+
+    private static final int RANK_WORD_PREFIX = 2;
+
+    private static final int RANK_SUBSTRING = 3;
+
+    private static final Comparator<Match> BEST_FIRST = Comparator.comparingInt(Match::rank)
+            .thenComparingInt(Match::length)
+            .thenComparingInt(Match::id);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // everything below is guarded by lock
+    private Content live = new Content();
+
+    // index being filled by a rebuild in progress, null otherwise
+    private Content rebuilding;
+
+    // ids put or removed since the rebuild started, their loaded rows are dropped
+    private Set<Integer> writtenDuringRebuild;
+
+    public void put(Integer id, String name) {
+        String normalized = normalize(name);
+        lock.writeLock().lock();
+        try {
+            live.put(id, normalized);
+            if (rebuilding != null) {
+                rebuilding.put(id, normalized);
+                writtenDuringRebuild.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            live.remove(id);
+            if (rebuilding != null) {
+                rebuilding.remove(id);
+                writtenDuringRebuild.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the content with the rows {@code loader} passes to its sink. Searches use the old
+     * content until the loader returns; if it throws, the old content stays.
+     */
+    public synchronized void rebuild(Consumer<BiConsumer<Integer, String>> loader) {
+        lock.writeLock().lock();
+        try {
+            rebuilding = new Content();
+            writtenDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        boolean loaded = false;
+        try {
+            loader.accept((id, name) -> {
+                String normalized = normalize(name);
+                lock.writeLock().lock();
+                try {
+                    if (!writtenDuringRebuild.contains(id)) {
+                        rebuilding.put(id, normalized);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    live = rebuilding;
+                }
+                rebuilding = null;
+                writtenDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the best {@code limit} items whose name contains {@code term}, best first.
+     */
+    public List<Integer> search(String term, int limit) {
+        String query = normalize(term);
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = live.postingsOf(query);
+            if (lists == null) {
+                return List.of();
+            }
+            // walk the rarest gram, probe the others
+            Arrays.sort(lists, Comparator.comparingInt(Postings::size));
+
+            PriorityQueue<Match> top = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+            Postings rarest = lists[0];
+            for (int i = 0; i < rarest.size(); i++) {
+                int id = rarest.get(i);
+                if (!inAll(lists, id)) {
+                    continue;
+                }
+                String name = live.names.get(id);
+                int rank = rank(name, query);
+                if (rank < 0) {
+                    continue;
+                }
+                top.add(new Match(id, rank, name.length()));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Match> matches = new ArrayList<>(top);
+            matches.sort(BEST_FIRST);
+            return matches.stream().map(Match::id).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ============ HELPER ============
+
+    private boolean inAll(Postings[] lists, int id) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<Long> gramsOf(String name) {
+        Set<Long> keys = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= name.length(); i++) {
+            keys.add(gram(name.charAt(i), name.charAt(i + 1), name.charAt(i + 2)));
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (isWordStart(name, i)) {
+                keys.add(gram(WORD_START, WORD_START, name.charAt(i)));
+                if (i + 1 < name.length()) {
+                    keys.add(gram(WORD_START, name.charAt(i), name.charAt(i + 1)));
+                }
+            }
+        }
+        return keys;
+    }
+
+    // -1 when the name does not contain the query (trigrams match, order does not)
+    private static int rank(String name, String query) {
+        int at = name.indexOf(query);
+        if (at < 0) {
+            return -1;
+        }
+        if (at == 0) {
+            return name.length() == query.length() ? RANK_EXACT : RANK_PREFIX;
+        }
+        for (; at >= 0; at = name.indexOf(query, at + 1)) {
+            if (isWordStart(name, at)) {
+                return RANK_WORD_PREFIX;
+            }
+        }
+        return RANK_SUBSTRING;
+    }
+
+    private static boolean isWordStart(String name, int i) {
+        return Character.isLetterOrDigit(name.charAt(i))
+                && (i == 0 || !Character.isLetterOrDigit(name.charAt(i - 1)));
+    }
+
+    private static long gram(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Match(int id, int rank, int length) {
+    }
+
+    /**
+     * Names by id and posting lists by gram, of one index generation.
+     */
+    private static final class Content {
+
+        private final Map<Integer, String> names = new HashMap<>();
+
+        private final Map<Long, Postings> grams = new HashMap<>();
+
+        void put(Integer id, String normalized) {
+            String previous = names.put(id, normalized);
+            if (previous != null) {
+                if (previous.equals(normalized)) {
+                    return;
+                }
+                unlink(id, previous);
+            }
+            for (long gram : gramsOf(normalized)) {
+                grams.computeIfAbsent(gram, key -> new Postings()).add(id);
+            }
+        }
+
+        void remove(Integer id) {
+            String previous = names.remove(id);
+            if (previous != null) {
+                unlink(id, previous);
+            }
+        }
+
+        // null when one of the grams has no posting, nothing can match then
+        Postings[] postingsOf(String query) {
+            Set<Long> keys = new LinkedHashSet<>();
+            if (query.length() == 1) {
+                keys.add(gram(WORD_START, WORD_START, query.charAt(0)));
+            } else if (query.length() == 2) {
+                keys.add(gram(WORD_START, query.charAt(0), query.charAt(1)));
+            } else {
+                for (int i = 0; i + 3 <= query.length(); i++) {
+                    keys.add(gram(query.charAt(i), query.charAt(i + 1), query.charAt(i + 2)));
+                }
+            }
+
+            Postings[] lists = new Postings[keys.size()];
+            int i = 0;
+            for (Long key : keys) {
+                Postings postings = grams.get(key);
+                if (postings == null) {
+                    return null;
+                }
+                lists[i++] = postings;
+            }
+            return lists;
+        }
+
+        private void unlink(Integer id, String name) {
+            for (long gram : gramsOf(name)) {
+                Postings postings = grams.get(gram);
+                if (postings != null && postings.remove(id) && postings.size() == 0) {
+                    grams.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorted set of ids. Ids mostly arrive in ascending order, which appends.
+     */
+    private static final class Postings {
+
+        private int[] ids = new int[4];
+
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int get(int i) {
+            return ids[i];
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(int id) {
+            int at = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                at = -at - 1;
+            } else if (at < size) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+}
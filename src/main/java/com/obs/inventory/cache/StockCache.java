@@ -0,0 +1,117 @@
+package com.obs.inventory.cache;
+
+import com.obs.inventory.dto.StockCacheStatsDto;
+import org.springframework.stereotype.Component;
+
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process copy of stock_balances for hot reads.
+ *
+ * Every entry carries the balance row version, and an older version never
+ * overwrites a newer one. Writers publish the row they just updated after their
+ * transaction commits, so whichever of a reader or writer lands last, the cache
+ * converges to the latest committed balance.
+ *
+ * A rebuild replaces the whole map, so entries of rows that no longer exist go
+ * away. Puts that land while the rows are being read go into the new map as
+ * well, the swap cannot lose them.
+ */
+@Component
+public class StockCache {
+
+    private volatile ConcurrentHashMap<Integer, CachedBalance> balances = new ConcurrentHashMap<>();
+
+    // map being filled by a rebuild in progress, null otherwise; guarded by swapLock
+    private ConcurrentHashMap<Integer, CachedBalance> rebuilding;
+
+    // puts share the read side, only starting and finishing a rebuild take the write side
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder rebuilds = new LongAdder();
+
+    public OptionalLong get(Integer itemId) {
+        CachedBalance cached = balances.get(itemId);
+        if (cached == null) {
+            misses.increment();
+            return OptionalLong.empty();
+        }
+        hits.increment();
+        return OptionalLong.of(cached.onHand());
+    }
+
+    // version of the cached balance, for ETags; not counted as a hit or miss
+    public OptionalLong getVersion(Integer itemId) {
+        CachedBalance cached = balances.get(itemId);
+        return cached == null ? OptionalLong.empty() : OptionalLong.of(cached.version());
+    }
+
+    public void put(Integer itemId, long onHand, long version) {
+        CachedBalance candidate = new CachedBalance(onHand, version);
+        swapLock.readLock().lock();
+        try {
+            merge(balances, itemId, candidate);
+            if (rebuilding != null) {
+                merge(rebuilding, itemId, candidate);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the content with what {@code loader} puts. The old entries keep serving reads until
+     * the loader returns; if it throws, the old map stays.
+     */
+    public synchronized void rebuild(Runnable loader) {
+        swapLock.writeLock().lock();
+        try {
+            rebuilding = new ConcurrentHashMap<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        boolean loaded = false;
+        try {
+            loader.run();
+            loaded = true;
+        } finally {
+            swapLock.writeLock().lock();
+            try {
+                if (loaded) {
+                    balances = rebuilding;
+                    rebuilds.increment();
+                }
+                rebuilding = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        }
+    }
+
+    public StockCacheStatsDto stats() {
+        return StockCacheStatsDto.builder()
+                .size(balances.size())
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .rebuilds(rebuilds.sum())
+                .build();
+    }
+
+    // ============ HELPER ============
+
+    private static void merge(ConcurrentHashMap<Integer, CachedBalance> map, Integer itemId, CachedBalance candidate) {
+        map.merge(itemId, candidate, (current, fresh) -> fresh.version() >= current.version() ? fresh : current);
+    }
+
+    private record CachedBalance(long onHand, long version) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.obs.inventory.config;
+
+import com.obs.inventory.entity.InventoryEntity;
+import com.obs.inventory.repository.InventoryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Inventory ids used to be supplied by clients only. Client ids stay below
+ * {@link InventoryEntity#GENERATED_ID_FROM}, generated ids start there, so a client id can never
+ * take an id the pooled optimizer already holds in memory. Before the first generated id is handed
+ * out, move the sequence to the start of that range, or past the highest id already in it.
+ * Runs while the context starts, before the web server accepts requests.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryIdSequenceInitializer {
+
+    private final InventoryRepository inventoryRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequence() {
+        Integer maxId = inventoryRepository.findMaxId();
+        long firstId = Math.max(maxId != null ? maxId + 1L : 1L, InventoryEntity.GENERATED_ID_FROM);
+        // the pooled optimizer hands out (value - allocationSize, value], so the first block starts at firstId
+        long restartWith = firstId - 1 + InventoryEntity.ID_ALLOCATION_SIZE;
+        jdbcTemplate.execute("alter sequence " + InventoryEntity.ID_SEQUENCE + " restart with " + restartWith);
+        log.debug("Sequence {} restarted with {}", InventoryEntity.ID_SEQUENCE, restartWith);
+    }
+}
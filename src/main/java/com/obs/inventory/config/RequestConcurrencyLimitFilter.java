@@ -0,0 +1,164 @@
+package com.obs.inventory.config;
+
+import com.obs.inventory.dto.response.ResponseMessage;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * At most {@code maxConcurrent} requests run at once, the others wait in arrival order.
+ * A request still waiting after {@code queueTimeout} gets 503 (ERR-503) with Retry-After,
+ * instead of a 500 when Hikari gives up on a connection. See {@link VirtualThreadConfig}.
+ *
+ * Only database-bound routes are limited: actuator and the in-memory cache statistics pass straight
+ * through. An async request (the NDJSON exports) keeps its permit until the async work completes,
+ * since it holds its connection after the servlet thread has returned.
+ */
+@Slf4j
+public class RequestConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+
+    // no JDBC behind these, queueing them would only delay health checks and cache stats
+    private static final List<String> UNLIMITED_PATHS = List.of(
+            "/actuator/**",
+            "/api/v1/items/cache/**",
+            "/api/v1/stocks/cache");
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final Semaphore permits;
+
+    private final int maxConcurrent;
+
+    private final Duration queueTimeout;
+
+    private final JsonMapper jsonMapper;
+
+    public RequestConcurrencyLimitFilter(int maxConcurrent, Duration queueTimeout, JsonMapper jsonMapper) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.queueTimeout = queueTimeout;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return UNLIMITED_PATHS.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.warn("Request {} {} rejected, {} requests in flight for {}",
+                    request.getMethod(), request.getRequestURI(), maxConcurrent, queueTimeout);
+            reject(response);
+            return;
+        }
+
+        PermitRelease permit = new PermitRelease(permits);
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // the body is still written on another thread, with its connection
+                request.getAsyncContext().addListener(permit);
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                permit.release();
+            }
+        }
+    }
+
+    public int available() {
+        return permits.availablePermits();
+    }
+
+    // ============ HELPER ============
+
+    private void reject(HttpServletResponse response) throws IOException {
+        ResponseMessage<Object> resp = new ResponseMessage<>();
+        resp.setIsError(true);
+        resp.setErrorNumber("ERR-503");
+        resp.setMessage("Server busy, retry later");
+        resp.setTrxDateResponse(LocalDateTime.now().format(FORMATTER));
+        resp.setData(Collections.emptyList());
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(), resp);
+    }
+
+    /**
+     * Gives the permit back once, whichever of complete / error / timeout comes first.
+     */
+    private static final class PermitRelease implements AsyncListener {
+
+        private final Semaphore permits;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitRelease(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        // listeners are dropped when async is started again, stay registered
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.obs.inventory.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.obs.inventory.entity.ItemEntity;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.CacheSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache on a Caffeine JCache manager owned by the context.
+ *
+ * Regions are created here, bounded from {@code inventory.l2cache.*}, instead of being created
+ * on the fly by Hibernate with unbounded defaults. The update timestamps region is never bounded
+ * or expired: dropping a timestamp would let a stale query result be served.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${inventory.l2cache.items.max-size:10000}") long itemsMaxSize,
+            @Value("${inventory.l2cache.items.ttl:PT1H}") Duration itemsTtl,
+            @Value("${inventory.l2cache.item-queries.max-size:1000}") long queriesMaxSize,
+            @Value("${inventory.l2cache.item-queries.ttl:PT10M}") Duration queriesTtl) {
+        // one manager per context, so test contexts sharing the JVM do not share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("inventory-l2-" + UUID.randomUUID()),
+                        getClass().getClassLoader(), new Properties());
+
+        cacheManager.createCache(ItemEntity.CACHE_REGION, region(itemsMaxSize, itemsTtl));
+        cacheManager.createCache(ItemEntity.QUERY_CACHE_REGION, region(queriesMaxSize, queriesTtl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(queriesMaxSize, queriesTtl));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(CacheSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(CacheSettings.USE_QUERY_CACHE, true);
+            properties.put(CacheSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return configuration;
+    }
+}
@@ -0,0 +1,43 @@
+package com.obs.inventory.config;
+
+import com.obs.inventory.metrics.InventoryMetrics;
+import com.obs.inventory.metrics.SqlStatementFilter;
+import com.obs.inventory.metrics.StatementTrackingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * SQL statement count and JDBC time per request, on by default, {@code inventory.sql-tracking.enabled=false}
+ * turns it off. The pool bean is wrapped in a {@link StatementTrackingDataSource}; Boot's Hikari metrics
+ * and pool settings still reach the pool through {@code unwrap}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.sql-tracking.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementTrackingConfig {
+
+    @Bean
+    public static BeanPostProcessor statementTrackingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementTrackingDataSource)) {
+                    return new StatementTrackingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlStatementFilter sqlStatementFilter(
+            InventoryMetrics inventoryMetrics,
+            @Value("${inventory.sql-tracking.statement-budget:20}") int statementBudget,
+            @Value("${inventory.sql-tracking.repeat-threshold:10}") int repeatThreshold) {
+        return new SqlStatementFilter(inventoryMetrics, statementBudget, repeatThreshold);
+    }
+}
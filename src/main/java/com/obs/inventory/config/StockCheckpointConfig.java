@@ -0,0 +1,22 @@
+package com.obs.inventory.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Workers of the checkpoint job, one per chunk in flight. Created once with the context and shut down
+ * with it, a run only submits to the pool.
+ */
+@Configuration
+public class StockCheckpointConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService checkpointExecutor(@Value("${inventory.checkpoint.parallelism:4}") int parallelism) {
+        return Executors.newFixedThreadPool(Math.max(1, parallelism), new CustomizableThreadFactory("stock-checkpoint-"));
+    }
+}
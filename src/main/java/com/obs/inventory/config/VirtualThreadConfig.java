@@ -0,0 +1,35 @@
+package com.obs.inventory.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+/**
+ * Virtual-thread mode, {@code spring.threads.virtual.enabled=true} on Java 21+.
+ *
+ * Spring Boot then runs Tomcat requests, {@code @Scheduled} jobs and the application task executor
+ * on virtual threads. Tomcat's 200 worker threads no longer cap concurrency, so every accepted
+ * request would go straight for one of the pooled JDBC connections and wait inside Hikari until
+ * {@code connectionTimeout}. The limit filter keeps the number of requests in flight at the size of
+ * the connection pool and queues the rest on cheap parked virtual threads.
+ */
+@Configuration
+@ConditionalOnJava(JavaVersion.TWENTY_ONE)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public RequestConcurrencyLimitFilter requestConcurrencyLimitFilter(
+            @Value("${inventory.virtual-threads.max-concurrent-requests:${spring.datasource.hikari.maximum-pool-size:10}}")
+            int maxConcurrentRequests,
+            @Value("${inventory.virtual-threads.queue-timeout:PT10S}") Duration queueTimeout,
+            JsonMapper jsonMapper) {
+        return new RequestConcurrencyLimitFilter(maxConcurrentRequests, queueTimeout, jsonMapper);
+    }
+}
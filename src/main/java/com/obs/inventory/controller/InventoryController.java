@@ -1,15 +1,23 @@
 package com.obs.inventory.controller;
 
+import com.obs.inventory.dto.InventoryIngestResultDto;
 import com.obs.inventory.dto.InventoryRequestDto;
 import com.obs.inventory.dto.InventoryResponseDto;
+import com.obs.inventory.dto.response.CursorPageDto;
 import com.obs.inventory.dto.response.ResponseMessage;
 import com.obs.inventory.dto.search.InventorySearchDto;
 import com.obs.inventory.service.InventoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/v1/inventories")
@@ -18,9 +26,29 @@ public class InventoryController {
 
     private final InventoryService inventoryService;
 
+    // count=false skips the total: a Slice with hasNext instead of a Page
     @GetMapping("")
-    public Page<InventoryResponseDto> getInventoriesPage(InventorySearchDto inventorySearchDto, Pageable pageable) {
-        return inventoryService.getInventoriesPage(inventorySearchDto, pageable);
+    public Slice<InventoryResponseDto> getInventoriesPage(InventorySearchDto inventorySearchDto, Pageable pageable,
+                                                          @RequestParam(defaultValue = "true") boolean count) {
+        return count
+                ? inventoryService.getInventoriesPage(inventorySearchDto, pageable)
+                : inventoryService.getInventoriesSlice(inventorySearchDto, pageable);
+    }
+
+    @GetMapping("/cursor")
+    public CursorPageDto<InventoryResponseDto> getInventoriesCursor(InventorySearchDto inventorySearchDto,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "20") int size) {
+        return inventoryService.getInventoriesAfter(inventorySearchDto, cursor, size);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportInventories(InventorySearchDto inventorySearchDto) {
+        // the body runs after the 200 is committed, an invalid filter has to fail here
+        inventoryService.validateInventorySearch(inventorySearchDto);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> inventoryService.exportInventories(inventorySearchDto, out));
     }
 
     @GetMapping("/{id}")
@@ -33,6 +61,12 @@ public class InventoryController {
         return inventoryService.createInventory(inventoryRequestDto);
     }
 
+    @PostMapping(value = "/ingest", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseMessage<InventoryIngestResultDto> ingestInventories(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                                       InputStream body) {
+        return inventoryService.ingestInventories(body, contentType);
+    }
+
     @PutMapping("/update")
     public ResponseMessage<InventoryResponseDto> updateInventory(@Valid @RequestBody InventoryRequestDto inventoryRequestDto) {
         return inventoryService.updateInventory(inventoryRequestDto);
@@ -1,15 +1,18 @@
 package com.obs.inventory.controller;
 
+import com.obs.inventory.dto.ItemCacheStatsDto;
 import com.obs.inventory.dto.ItemRequestDto;
 import com.obs.inventory.dto.ItemResponseDto;
+import com.obs.inventory.dto.SecondLevelCacheStatsDto;
 import com.obs.inventory.dto.response.ResponseMessage;
 import com.obs.inventory.dto.search.ItemSearchDto;
 import com.obs.inventory.service.ItemService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/v1/items")
@@ -18,13 +21,42 @@ public class ItemController {
 
     private final ItemService itemService;
 
+    // count=false skips the total: a Slice with hasNext instead of a Page
     @GetMapping("")
-    public Page<ItemResponseDto> getItemsPage (ItemSearchDto itemSearchDto, Pageable pageable){
-        return itemService.getItemsPage(itemSearchDto, pageable);
+    public Slice<ItemResponseDto> getItemsPage (ItemSearchDto itemSearchDto, Pageable pageable,
+                                                @RequestParam(defaultValue = "true") boolean count){
+        return count
+                ? itemService.getItemsPage(itemSearchDto, pageable)
+                : itemService.getItemsSlice(itemSearchDto, pageable);
     }
 
+    @GetMapping("/search")
+    public ResponseMessage<Integer> searchItems (@RequestParam("q") String term,
+                                                @RequestParam(defaultValue = "20") int limit){
+        return itemService.searchItemIds(term, limit);
+    }
+
+    @PostMapping("/search/rebuild")
+    public ResponseMessage<Integer> rebuildNameIndex (){
+        return itemService.rebuildNameIndex();
+    }
+
+    @GetMapping("/cache")
+    public ResponseMessage<ItemCacheStatsDto> getCacheStats (){
+        return itemService.getCacheStats();
+    }
+
+    @GetMapping("/cache/l2")
+    public ResponseMessage<SecondLevelCacheStatsDto> getSecondLevelCacheStats (){
+        return itemService.getSecondLevelCacheStats();
+    }
+
+    // a matching If-None-Match gets 304 before the stock lookup and the body are built
     @GetMapping("/{id}")
-    public ResponseMessage<ItemResponseDto> getItem (@PathVariable Integer id){
+    public ResponseMessage<ItemResponseDto> getItem (@PathVariable Integer id, WebRequest request){
+        if (request.checkNotModified(itemService.getItemETag(id))) {
+            return null;
+        }
         return itemService.getItem(id);
     }
 
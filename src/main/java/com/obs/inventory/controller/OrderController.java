@@ -2,16 +2,24 @@ package com.obs.inventory.controller;
 
 import com.obs.inventory.dto.InventoryRequestDto;
 import com.obs.inventory.dto.InventoryResponseDto;
+import com.obs.inventory.dto.OrderBulkLineDto;
 import com.obs.inventory.dto.OrderRequestDto;
 import com.obs.inventory.dto.OrderResponseDto;
+import com.obs.inventory.dto.response.CursorPageDto;
 import com.obs.inventory.dto.response.ResponseMessage;
 import com.obs.inventory.dto.search.OrderSearchDto;
 import com.obs.inventory.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/orders")
@@ -20,14 +28,37 @@ public class OrderController {
 
     private final OrderService orderService;
 
+    // count=false skips the total: a Slice with hasNext instead of a Page
     @GetMapping("")
-    public Page<OrderResponseDto> getOrderPages(OrderSearchDto orderSearchDto, Pageable pageable) {
-        return orderService.getOrdersPages(orderSearchDto, pageable);
+    public Slice<OrderResponseDto> getOrderPages(OrderSearchDto orderSearchDto, Pageable pageable,
+                                                 @RequestParam(defaultValue = "true") boolean count) {
+        return count
+                ? orderService.getOrdersPages(orderSearchDto, pageable)
+                : orderService.getOrdersSlice(orderSearchDto, pageable);
+    }
+
+    @GetMapping("/cursor")
+    public CursorPageDto<OrderResponseDto> getOrdersCursor(OrderSearchDto orderSearchDto,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "20") int size) {
+        return orderService.getOrdersAfter(orderSearchDto, cursor, size);
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(OrderSearchDto orderSearchDto) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> orderService.exportOrders(orderSearchDto, out));
+    }
+
+    // a matching If-None-Match gets 304 without a body; the order is read once, the ETag is hashed from it
     @GetMapping("/{orderNo}")
-    public ResponseMessage<OrderResponseDto> getOrder(@PathVariable String orderNo) {
-        return orderService.getOrder(orderNo);
+    public ResponseMessage<OrderResponseDto> getOrder(@PathVariable String orderNo, WebRequest request) {
+        ResponseMessage<OrderResponseDto> response = orderService.getOrder(orderNo);
+        if (request.checkNotModified(orderService.getOrderETag(response.getData().get(0)))) {
+            return null;
+        }
+        return response;
     }
 
     @PostMapping("/create")
@@ -35,6 +66,11 @@ public class OrderController {
         return orderService.createOrder(orderRequestDto);
     }
 
+    @PostMapping("/bulk")
+    public ResponseMessage<OrderBulkLineDto> createOrders(@RequestBody List<OrderRequestDto> orderRequestDtos) {
+        return orderService.createOrders(orderRequestDtos);
+    }
+
     @PutMapping("/update")
     public ResponseMessage<OrderResponseDto> updateOrder(@Valid @RequestBody OrderRequestDto orderRequestDto) {
         return orderService.updateOrder(orderRequestDto);
@@ -0,0 +1,35 @@
+package com.obs.inventory.controller;
+
+import com.obs.inventory.dto.StockCacheStatsDto;
+import com.obs.inventory.dto.StockCheckpointResultDto;
+import com.obs.inventory.dto.response.ResponseMessage;
+import com.obs.inventory.service.StockCheckpointService;
+import com.obs.inventory.service.StockService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/stocks")
+@RequiredArgsConstructor
+public class StockController {
+
+    private final StockService stockService;
+
+    private final StockCheckpointService stockCheckpointService;
+
+    @GetMapping("/cache")
+    public ResponseMessage<StockCacheStatsDto> getCacheStats() {
+        return stockService.getCacheStats();
+    }
+
+    @PostMapping("/cache/rebuild")
+    public ResponseMessage<StockCacheStatsDto> rebuildCache() {
+        return stockService.rebuildCache();
+    }
+
+    @PostMapping("/checkpoints/create")
+    public ResponseMessage<StockCheckpointResultDto> createCheckpoints() {
+        return stockCheckpointService.createCheckpoints();
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.obs.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryIngestErrorDto {
+
+    private Integer line;
+
+    private String errorNumber;
+
+    private String message;
+
+}
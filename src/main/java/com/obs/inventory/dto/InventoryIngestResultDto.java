@@ -0,0 +1,31 @@
+package com.obs.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryIngestResultDto {
+
+    private Long accepted;
+
+    private Long rejected;
+
+    private Integer batches;
+
+    private Long durationMs;
+
+    private Long rowsPerSecond;
+
+    // only the first inventory.ingest.max-reported-errors rejections are listed
+    @Builder.Default
+    private List<InventoryIngestErrorDto> errors = new ArrayList<>();
+
+}
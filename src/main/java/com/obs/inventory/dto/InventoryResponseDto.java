@@ -1,5 +1,6 @@
 package com.obs.inventory.dto;
 
+import com.obs.inventory.entity.InventoryType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,4 +20,9 @@ public class InventoryResponseDto {
 
     private String type;
 
+    // target of the JPQL constructor projection, the stored enum is exposed as its code
+    public InventoryResponseDto(Integer id, Integer itemId, Long qty, InventoryType type) {
+        this(id, itemId, qty, type.getCode());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.obs.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemCacheStatsDto {
+
+    private Integer size;
+
+    private Integer maxSize;
+
+    private Long hits;
+
+    private Long misses;
+
+    // dropped for size or TTL
+    private Long evictions;
+
+    // dropped by an item update / delete
+    private Long invalidations;
+
+}
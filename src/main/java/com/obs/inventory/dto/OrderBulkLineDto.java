@@ -0,0 +1,32 @@
+package com.obs.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBulkLineDto {
+
+    private Integer line;
+
+    private String orderNo;
+
+    private Integer itemId;
+
+    private Long qty;
+
+    private BigDecimal price;
+
+    private Boolean isError;
+
+    private String errorNumber;
+
+    private String message;
+
+}
@@ -0,0 +1,24 @@
+package com.obs.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SecondLevelCacheStatsDto {
+
+    private String region;
+
+    private Long hits;
+
+    private Long misses;
+
+    private Long puts;
+
+    private Long size;
+
+}
@@ -0,0 +1,22 @@
+package com.obs.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockCacheStatsDto {
+
+    private Integer size;
+
+    private Long hits;
+
+    private Long misses;
+
+    private Long rebuilds;
+
+}
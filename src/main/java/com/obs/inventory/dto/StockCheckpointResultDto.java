@@ -0,0 +1,25 @@
+package com.obs.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockCheckpointResultDto {
+
+    private String cutoff;
+
+    private Integer chunks;
+
+    private Long itemsCheckpointed;
+
+    // balance rows that disagreed with the ledger and were set to it
+    private Long balancesRepaired;
+
+    private Long durationMs;
+
+}
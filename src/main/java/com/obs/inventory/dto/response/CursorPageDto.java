@@ -0,0 +1,29 @@
+package com.obs.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a keyset listing. There is no total: pass nextCursor back (with the same filters)
+ * to get the following page, hasNext is false on the last one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDto<T> {
+
+    @Builder.Default
+    private List<T> content = new ArrayList<>();
+
+    private Integer size;
+
+    private Boolean hasNext;
+
+    private String nextCursor;
+}
@@ -0,0 +1,41 @@
+package com.obs.inventory.dto.response;
+
+import com.obs.inventory.exception.ErrorBusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token of a keyset listing: the sort key of the last row returned,
+ * prefixed with the listing it belongs to and Base64url encoded.
+ */
+public final class CursorToken {
+
+    private CursorToken() {
+    }
+
+    public static String encode(String listing, Object lastKey) {
+        String raw = listing + ":" + lastKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the last key carried by the token, or null for a missing token (first page).
+     */
+    public static String decode(String listing, String token, String errorNumber) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new ErrorBusinessException("Invalid cursor", errorNumber);
+        }
+        String prefix = listing + ":";
+        if (!raw.startsWith(prefix) || raw.length() == prefix.length()) {
+            throw new ErrorBusinessException("Invalid cursor", errorNumber);
+        }
+        return raw.substring(prefix.length());
+    }
+}
@@ -1,10 +1,15 @@
 package com.obs.inventory.entity;
 
+import com.obs.inventory.entity.converter.InventoryTypeConverter;
+import com.obs.inventory.entity.generator.AssignedOrSequence;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "inventories")
@@ -14,7 +19,15 @@ import lombok.NoArgsConstructor;
 @Builder
 public class InventoryEntity {
 
+    public static final String ID_SEQUENCE = "inventories_seq";
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // generated ids start here, client supplied ids must stay below so the two never collide
+    public static final int GENERATED_ID_FROM = 1_000_000_000;
+
     @Id
+    @AssignedOrSequence(sequenceName = InventoryEntity.ID_SEQUENCE, allocationSize = InventoryEntity.ID_ALLOCATION_SIZE)
     @Column(name = "id", nullable = false, updatable = false)
     private Integer id;
 
@@ -25,7 +38,14 @@ public class InventoryEntity {
     @Column(name = "qty", nullable = false)
     private Long qty;
 
+    @Convert(converter = InventoryTypeConverter.class)
     @Column(name = "type", nullable = false, length = 1)
-    private String type;
+    private InventoryType type;
+
+    // informational, null for rows written before this column existed; checkpoints use ledger_seq (V4),
+    // which the database assigns on insert and is not mapped here
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
 
 }
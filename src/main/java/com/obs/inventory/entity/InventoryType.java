@@ -0,0 +1,42 @@
+package com.obs.inventory.entity;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Movement type of an inventory record. Stored as a fixed one letter code,
+ * never as the enum name or ordinal, so renaming or reordering constants does not touch the data.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum InventoryType {
+
+    TOP_UP("T"),
+    WITHDRAWAL("W");
+
+    private final String code;
+
+    /**
+     * Case-insensitive lookup of a client supplied code ("t", " W ").
+     * Returns null for an unknown code, callers decide which validation error to raise.
+     */
+    public static InventoryType fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        String normalized = code.trim().toUpperCase(Locale.ROOT);
+        for (InventoryType type : values()) {
+            if (type.code.equals(normalized)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    // T adds to the stock, W takes from it
+    public long signed(long qty) {
+        return this == TOP_UP ? qty : -qty;
+    }
+}
@@ -5,17 +5,26 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ItemEntity.CACHE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class ItemEntity {
 
+    // second-level cache regions, sized in SecondLevelCacheConfig
+    public static final String CACHE_REGION = "items";
+
+    public static final String QUERY_CACHE_REGION = "item-queries";
+
     @Id
     @Column(name = "id", nullable = false, unique = true)
     private Integer id;
@@ -5,8 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "orders")
@@ -29,4 +31,10 @@ public class OrderEntity {
 
     @Column(name = "price", nullable = false)
     private BigDecimal price;
+
+    // informational, null for rows written before this column existed; checkpoints use ledger_seq (V4),
+    // which the database assigns on insert and is not mapped here
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
 }
@@ -0,0 +1,33 @@
+package com.obs.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Materialized remaining stock per item (topUp - withdraw - orderedQty).
+ * Maintained in the same transaction as every inventory / order write,
+ * so reading the stock of an item is a single primary key lookup.
+ */
+@Entity
+@Table(name = "stock_balances")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockBalanceEntity {
+
+    @Id
+    @Column(name = "item_id", nullable = false, updatable = false)
+    private Integer itemId;
+
+    @Column(name = "on_hand", nullable = false)
+    private Long onHand;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+}
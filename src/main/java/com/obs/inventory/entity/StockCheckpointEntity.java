@@ -0,0 +1,37 @@
+package com.obs.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Opening balance of an item: topUp - withdraw - orderedQty over every ledger / order row
+ * with ledger_seq up to ledgerSeq. Remaining stock = balance + rows numbered after it.
+ */
+@Entity
+@Table(name = "stock_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockCheckpointEntity {
+
+    @Id
+    @Column(name = "item_id", nullable = false, updatable = false)
+    private Integer itemId;
+
+    @Column(name = "balance", nullable = false)
+    private Long balance;
+
+    @Column(name = "ledger_seq", nullable = false)
+    private Long ledgerSeq;
+
+    // when the checkpoint was taken, informational
+    @Column(name = "checkpoint_at", nullable = false)
+    private LocalDateTime checkpointAt;
+
+}
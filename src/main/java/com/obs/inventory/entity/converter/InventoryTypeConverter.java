@@ -0,0 +1,26 @@
+package com.obs.inventory.entity.converter;
+
+import com.obs.inventory.entity.InventoryType;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class InventoryTypeConverter implements AttributeConverter<InventoryType, String> {
+
+    @Override
+    public String convertToDatabaseColumn(InventoryType type) {
+        return type != null ? type.getCode() : null;
+    }
+
+    @Override
+    public InventoryType convertToEntityAttribute(String code) {
+        if (code == null) {
+            return null;
+        }
+        InventoryType type = InventoryType.fromCode(code);
+        if (type == null) {
+            throw new IllegalStateException("Unknown inventory type code: " + code);
+        }
+        return type;
+    }
+}
@@ -0,0 +1,24 @@
+package com.obs.inventory.entity.generator;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Id taken from the client when it is set, otherwise from a database sequence
+ * with the pooled optimizer (one sequence call per allocationSize inserts).
+ */
+@IdGeneratorType(AssignedOrSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface AssignedOrSequence {
+
+    String sequenceName();
+
+    int allocationSize() default 50;
+}
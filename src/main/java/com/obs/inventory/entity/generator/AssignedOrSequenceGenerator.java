@@ -0,0 +1,31 @@
+package com.obs.inventory.entity.generator;
+
+import org.hibernate.MappingException;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+public class AssignedOrSequenceGenerator extends SequenceStyleGenerator {
+
+    private final AssignedOrSequence config;
+
+    public AssignedOrSequenceGenerator(AssignedOrSequence config, Member member, GeneratorCreationContext context) {
+        this.config = config;
+    }
+
+    @Override
+    public void configure(GeneratorCreationContext creationContext, Properties parameters) throws MappingException {
+        parameters.setProperty(SEQUENCE_PARAM, config.sequenceName());
+        parameters.setProperty(INCREMENT_PARAM, String.valueOf(config.allocationSize()));
+        parameters.setProperty(OPT_PARAM, "pooled");
+        super.configure(creationContext, parameters);
+    }
+
+    // a non-null id on persist is kept as is, the sequence is only used when the id is null
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+}
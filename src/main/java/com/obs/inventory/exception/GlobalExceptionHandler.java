@@ -1,7 +1,9 @@
 package com.obs.inventory.exception;
 
 import com.obs.inventory.dto.response.ResponseMessage;
+import com.obs.inventory.metrics.InventoryMetrics;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,10 +19,13 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
 
+    private final InventoryMetrics inventoryMetrics;
+
     @ExceptionHandler(NoResourceFoundException.class)
     public ResponseEntity<ResponseMessage<Object>> handleNoResource(
             NoResourceFoundException ex,
@@ -43,6 +48,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ResponseMessage<Object>> handleBusiness(ErrorBusinessException ex) {
 
         log.warn("Business error [{}] : {}", ex.getErrorNumber(), ex.getMessage());
+        inventoryMetrics.businessError(ex.getErrorNumber());
 
         ResponseMessage<Object> resp = new ResponseMessage<>();
         resp.setIsError(true);
@@ -62,6 +68,7 @@ public class GlobalExceptionHandler {
                 .collect(Collectors.joining("; "));
 
         log.warn("Validation error: {}", msg);
+        inventoryMetrics.businessError("VAL-400");
 
         ResponseMessage<Object> resp = new ResponseMessage<>();
         resp.setIsError(true);
@@ -0,0 +1,123 @@
+package com.obs.inventory.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Business meters, scraped from {@code /actuator/prometheus}.
+ *
+ * Tags stay low-cardinality: cache hit / miss, order outcome, error number. Item ids are never used
+ * as tags; hot items show up in the stock cache hit ratio and in the repository timers of
+ * {@code spring.data.repository.invocations}, which Spring Boot records for every repository method.
+ */
+@Component
+public class InventoryMetrics {
+
+    public static final String STOCK_REMAINING = "inventory.stock.remaining";
+
+    public static final String STOCK_REMAINING_BULK = "inventory.stock.remaining.bulk";
+
+    public static final String ORDERS_CREATE = "inventory.orders.create";
+
+    public static final String BUSINESS_ERRORS = "inventory.business.errors";
+
+    public static final String HTTP_SQL_STATEMENTS = "inventory.http.sql.statements";
+
+    public static final String HTTP_SQL_TIME = "inventory.http.sql.time";
+
+    private final MeterRegistry registry;
+
+    private final Timer stockCacheHit;
+
+    private final Timer stockCacheMiss;
+
+    private final Timer stockBulk;
+
+    private final Counter orderSuccess;
+
+    private final Counter orderInsufficientStock;
+
+    private final Counter orderDuplicate;
+
+    private final Counter orderRejected;
+
+    public InventoryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.stockCacheHit = stockTimer("hit");
+        this.stockCacheMiss = stockTimer("miss");
+        this.stockBulk = Timer.builder(STOCK_REMAINING_BULK)
+                .description("Remaining stock of a page of items")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.orderSuccess = orderCounter("success");
+        this.orderInsufficientStock = orderCounter("insufficient_stock");
+        this.orderDuplicate = orderCounter("duplicate");
+        this.orderRejected = orderCounter("rejected");
+    }
+
+    public void recordStockLookup(boolean cacheHit, long nanos) {
+        (cacheHit ? stockCacheHit : stockCacheMiss).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordStockBulkLookup(long nanos) {
+        stockBulk.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void orderCreated() {
+        orderSuccess.increment();
+    }
+
+    // ORD-001 insufficient stock, ORD-002 duplicate order no, anything else (validation, unknown item) rejected
+    public void orderFailed(String errorNumber) {
+        if ("ORD-001".equals(errorNumber)) {
+            orderInsufficientStock.increment();
+        } else if ("ORD-002".equals(errorNumber)) {
+            orderDuplicate.increment();
+        } else {
+            orderRejected.increment();
+        }
+    }
+
+    // error numbers are a fixed set of codes, safe as a tag
+    public void businessError(String errorNumber) {
+        registry.counter(BUSINESS_ERRORS, "errorNumber", errorNumber != null ? errorNumber : "none").increment();
+    }
+
+    // uri is the route pattern (/api/v1/items/{id}), never the raw path
+    public void recordRequestSql(String method, String uri, int statements, long jdbcNanos) {
+        DistributionSummary.builder(HTTP_SQL_STATEMENTS)
+                .description("JDBC statements per HTTP request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry)
+                .record(statements);
+        Timer.builder(HTTP_SQL_TIME)
+                .description("JDBC time per HTTP request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry)
+                .record(jdbcNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // ============ HELPER ============
+
+    private Timer stockTimer(String cache) {
+        return Timer.builder(STOCK_REMAINING)
+                .description("Remaining stock of one item")
+                .tag("cache", cache)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter orderCounter(String outcome) {
+        return Counter.builder(ORDERS_CREATE)
+                .description("Order creates by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
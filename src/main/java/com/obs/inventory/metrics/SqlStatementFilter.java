@@ -0,0 +1,136 @@
+package com.obs.inventory.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * JDBC statements and time per HTTP request, as a {@code Server-Timing} header
+ * ({@code db;dur=1.234;desc="3 statements"}) and as meters tagged with the route pattern.
+ *
+ * The header is written just before the body starts, so it covers everything the service did; SQL
+ * run while the body is written only reaches the meters. A request over the statement budget, or
+ * running the same statement {@code repeatThreshold} times, is logged at WARN with the statement;
+ * budget 0 / threshold 0 turn the warnings off.
+ */
+@Slf4j
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private final InventoryMetrics inventoryMetrics;
+
+    private final int statementBudget;
+
+    private final int repeatThreshold;
+
+    public SqlStatementFilter(InventoryMetrics inventoryMetrics, int statementBudget, int repeatThreshold) {
+        this.inventoryMetrics = inventoryMetrics;
+        this.statementBudget = statementBudget;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ServerTimingResponse timed = new ServerTimingResponse(response, SqlStatementTracker.start());
+        try {
+            chain.doFilter(request, timed);
+        } finally {
+            timed.scope.close();
+            timed.writeHeader();
+            report(request, timed.scope);
+        }
+    }
+
+    // ============ HELPER ============
+
+    private void report(HttpServletRequest request, SqlStatementTracker.Scope scope) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        inventoryMetrics.recordRequestSql(request.getMethod(), uri, scope.getStatements(), scope.getJdbcNanos());
+
+        if (statementBudget > 0 && scope.getStatements() > statementBudget) {
+            log.warn("{} {} ran {} SQL statements, budget {}",
+                    request.getMethod(), request.getRequestURI(), scope.getStatements(), statementBudget);
+        }
+        if (repeatThreshold > 0 && scope.getMaxRepeats() >= repeatThreshold) {
+            log.warn("Possible N+1 on {} {}: same statement ran {} times: {}",
+                    request.getMethod(), request.getRequestURI(), scope.getMaxRepeats(), scope.getMostRepeated());
+        }
+    }
+
+    static String serverTiming(SqlStatementTracker.Scope scope) {
+        return String.format(Locale.ROOT, "db;dur=%.3f;desc=\"%d statements\"",
+                scope.getJdbcNanos() / 1_000_000.0, scope.getStatements());
+    }
+
+    /**
+     * Sets the header the moment the body or an error is about to go out, headers are final after.
+     */
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatementTracker.Scope scope;
+
+        private boolean written;
+
+        ServerTimingResponse(HttpServletResponse response, SqlStatementTracker.Scope scope) {
+            super(response);
+            this.scope = scope;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+
+        void writeHeader() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(SERVER_TIMING, serverTiming(scope));
+        }
+    }
+}
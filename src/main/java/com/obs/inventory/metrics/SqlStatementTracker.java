@@ -0,0 +1,117 @@
+package com.obs.inventory.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the JDBC statements run by the current thread between {@link #start()} and
+ * {@link Scope#close()}: how many, total JDBC time, and the statement repeated most often,
+ * which is how an N+1 shows up. Fed by {@link StatementTrackingDataSource}.
+ *
+ * Used per HTTP request by {@link SqlStatementFilter}, and directly in tests:
+ * <pre>
+ * try (SqlStatementTracker.Scope sql = SqlStatementTracker.start()) {
+ *     itemService.getItemsPage(search, pageable);
+ *     assertThat(sql.getStatements()).isLessThanOrEqualTo(3);
+ * }
+ * </pre>
+ * Statements run on another thread (async exports, executors) are not counted. Scopes nest; a
+ * statement counts in every open scope of the thread.
+ */
+public final class SqlStatementTracker {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementTracker() {
+    }
+
+    public static Scope start() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static boolean active() {
+        return CURRENT.get() != null;
+    }
+
+    static void record(String sql, long nanos) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.add(sql, nanos);
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        // distinct statement texts kept for repeat counting, enough for any sane request
+        private static final int MAX_DISTINCT = 256;
+
+        private final Scope parent;
+
+        private final Map<String, Integer> executions = new HashMap<>();
+
+        private int statements;
+
+        private long jdbcNanos;
+
+        private int maxRepeats;
+
+        private String mostRepeated;
+
+        private boolean closed;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getJdbcNanos() {
+            return jdbcNanos;
+        }
+
+        /**
+         * Executions of the most repeated statement text, 10 times the same select is an N+1.
+         */
+        public int getMaxRepeats() {
+            return maxRepeats;
+        }
+
+        public String getMostRepeated() {
+            return mostRepeated;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (CURRENT.get() == this) {
+                if (parent != null) {
+                    CURRENT.set(parent);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        }
+
+        private void add(String sql, long nanos) {
+            if (closed) {
+                return;
+            }
+            statements++;
+            jdbcNanos += nanos;
+            if (sql == null || (executions.size() >= MAX_DISTINCT && !executions.containsKey(sql))) {
+                return;
+            }
+            int repeats = executions.merge(sql, 1, Integer::sum);
+            if (repeats > maxRepeats) {
+                maxRepeats = repeats;
+                mostRepeated = sql;
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.obs.inventory.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps the pool so every {@code execute*} call on a statement is counted and timed in the
+ * {@link SqlStatementTracker} scope of the calling thread. A batch counts as one statement, one
+ * round trip. The time of a query is until the driver returns the result set, rows fetched later
+ * are not included.
+ *
+ * Without an open scope (startup, Flyway, scheduled jobs) calls go straight through. Close is
+ * passed on to the pool, the context shuts it down through this wrapper.
+ */
+public class StatementTrackingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    public StatementTrackingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    // ============ HELPER ============
+
+    private static Connection track(Connection connection) {
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StatementTrackingDataSource.class.getClassLoader(),
+                new Class<?>[] {type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private static String sqlArgument(Object[] args) {
+        return args != null && args.length > 0 && args[0] instanceof String sql ? sql : null;
+    }
+
+    // wraps createStatement / prepareStatement / prepareCall results, keeping the prepared SQL
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = StatementTrackingDataSource.invoke(target, method, args);
+            Class<?> type = method.getReturnType();
+            if (result instanceof Statement statement && type.isInterface() && Statement.class.isAssignableFrom(type)) {
+                return proxy(type, new StatementHandler(statement, sqlArgument(args)));
+            }
+            return result;
+        }
+    }
+
+    private record StatementHandler(Statement target, String preparedSql) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute") || !SqlStatementTracker.active()) {
+                return StatementTrackingDataSource.invoke(target, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return StatementTrackingDataSource.invoke(target, method, args);
+            } finally {
+                String sql = sqlArgument(args);
+                SqlStatementTracker.record(sql != null ? sql : preparedSql, System.nanoTime() - start);
+            }
+        }
+    }
+}
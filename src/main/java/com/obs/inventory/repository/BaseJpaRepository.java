@@ -0,0 +1,120 @@
+package com.obs.inventory.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+/**
+ * Repository base class (see InventoryApplication), adds {@link SliceRepository} and {@link ProjectionRepository}
+ * on top of SimpleJpaRepository.
+ */
+public class BaseJpaRepository<T, ID> extends SimpleJpaRepository<T, ID>
+        implements SliceRepository<T>, ProjectionRepository<T> {
+
+    private final EntityManager entityManager;
+
+    public BaseJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<T> findSlice(Specification<T> spec, Pageable pageable) {
+        TypedQuery<T> query = getQuery(spec, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList(), pageable, false);
+        }
+
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<T> rows = query.getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public <R> Page<R> findProjectedPage(Specification<T> spec, Pageable pageable, Class<R> type, String... paths) {
+        TypedQuery<R> query = getProjectionQuery(spec, pageable.getSort(), type, paths);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        // the count only runs when the content does not already tell the total
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public <R> Slice<R> findProjectedSlice(Specification<T> spec, Pageable pageable, Class<R> type, String... paths) {
+        TypedQuery<R> query = getProjectionQuery(spec, pageable.getSort(), type, paths);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList(), pageable, false);
+        }
+
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<R> rows = query.getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public <R> List<R> findProjected(Specification<T> spec, Sort sort, int limit, Class<R> type, String... paths) {
+        return getProjectionQuery(spec, sort, type, paths)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // ============ HELPER ============
+
+    private <R> TypedQuery<R> getProjectionQuery(Specification<T> spec, Sort sort, Class<R> type, String... paths) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(type);
+        Root<T> root = query.from(getDomainClass());
+
+        Selection<?>[] selections = new Selection<?>[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            selections[i] = resolve(root, paths[i]);
+        }
+        query.select(cb.construct(type, selections));
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    // "item.id" -> root.get("item").get("id"), a path, not a join
+    private static Path<?> resolve(Root<?> root, String path) {
+        Path<?> resolved = root;
+        for (String attribute : path.split("\\.")) {
+            resolved = resolved.get(attribute);
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,84 @@
+package com.obs.inventory.repository;
+
+import com.obs.inventory.dto.InventoryResponseDto;
+import com.obs.inventory.dto.OrderResponseDto;
+import com.obs.inventory.dto.search.InventorySearchDto;
+import com.obs.inventory.dto.search.OrderSearchDto;
+import com.obs.inventory.entity.InventoryType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only reads for the ledger / order exports. Plain JDBC on purpose: rows are mapped straight
+ * to response DTOs and handed to the consumer one by one, nothing is attached to a persistence context,
+ * so memory does not grow with the number of rows. The fetch size lets the driver stream instead of
+ * buffering the whole result.
+ */
+@Repository
+public class ExportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExportRepository(DataSource dataSource,
+                            @Value("${inventory.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public void streamInventories(InventorySearchDto filter, InventoryType type, Consumer<InventoryResponseDto> consumer) {
+        StringBuilder sql = new StringBuilder("select id, item_id, qty, type from inventories where 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (filter.getId() != null) {
+            sql.append(" and id = ?");
+            args.add(filter.getId());
+        }
+        if (filter.getItemId() != null) {
+            sql.append(" and item_id = ?");
+            args.add(filter.getItemId());
+        }
+        if (type != null) {
+            sql.append(" and type = ?");
+            args.add(type.getCode());
+        }
+        sql.append(" order by id");
+
+        jdbcTemplate.query(sql.toString(), rs -> {
+            consumer.accept(InventoryResponseDto.builder()
+                    .id(rs.getInt(1))
+                    .itemId(rs.getInt(2))
+                    .qty(rs.getLong(3))
+                    .type(rs.getString(4))
+                    .build());
+        }, args.toArray());
+    }
+
+    public void streamOrders(OrderSearchDto filter, Consumer<OrderResponseDto> consumer) {
+        StringBuilder sql = new StringBuilder("select order_no, item_id, qty, price from orders where 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (StringUtils.hasText(filter.getOrderNo())) {
+            sql.append(" and order_no = ?");
+            args.add(filter.getOrderNo());
+        }
+        if (filter.getItemId() != null) {
+            sql.append(" and item_id = ?");
+            args.add(filter.getItemId());
+        }
+        sql.append(" order by order_no");
+
+        jdbcTemplate.query(sql.toString(), rs -> {
+            consumer.accept(OrderResponseDto.builder()
+                    .orderNo(rs.getString(1))
+                    .itemId(rs.getInt(2))
+                    .qty(rs.getLong(3))
+                    .price(rs.getBigDecimal(4))
+                    .build());
+        }, args.toArray());
+    }
+}
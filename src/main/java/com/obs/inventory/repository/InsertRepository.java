@@ -0,0 +1,22 @@
+package com.obs.inventory.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Insert-only persistence for entities with assigned ids.
+ * Unlike save(), persist never issues the SELECT a merge needs to decide between insert and update.
+ */
+public interface InsertRepository<T> {
+
+    <S extends T> S persist(S entity);
+
+    /**
+     * Persist and flush right away, so a duplicate key surfaces here as a {@link org.springframework.dao.DuplicateKeyException}
+     * instead of at commit. Replaces the existsById pre-check: a create is a single INSERT.
+     */
+    <S extends T> S persistAndFlush(S entity);
+
+    // flushes and clears the persistence context every JDBC batch, so memory stays bounded
+    <S extends T> List<S> persistAll(Collection<S> entities);
+}
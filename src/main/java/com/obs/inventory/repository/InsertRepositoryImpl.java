@@ -0,0 +1,63 @@
+package com.obs.inventory.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class InsertRepositoryImpl<T> implements InsertRepository<T> {
+
+    // SQL standard state for a unique / primary key violation
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public <S extends T> S persist(S entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    @Override
+    @Transactional
+    public <S extends T> S persistAndFlush(S entity) {
+        try {
+            entityManager.persist(entity);
+            entityManager.flush();
+        } catch (ConstraintViolationException ex) {
+            if (UNIQUE_VIOLATION.equals(ex.getSQLState())) {
+                throw new DuplicateKeyException(ex.getMessage(), ex);
+            }
+            throw ex;
+        }
+        return entity;
+    }
+
+    @Override
+    @Transactional
+    public <S extends T> List<S> persistAll(Collection<S> entities) {
+        List<S> result = new ArrayList<>(entities.size());
+        int count = 0;
+        for (S entity : entities) {
+            entityManager.persist(entity);
+            result.add(entity);
+            if (++count % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        return result;
+    }
+}
@@ -7,12 +7,42 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface InventoryRepository extends JpaRepository<InventoryEntity, String>, JpaSpecificationExecutor<InventoryEntity> {
+public interface InventoryRepository extends JpaRepository<InventoryEntity, String>, JpaSpecificationExecutor<InventoryEntity>,
+        InsertRepository<InventoryEntity>, SliceRepository<InventoryEntity>, ProjectionRepository<InventoryEntity> {
+
+    // topUp, withdraw and ordered qty of one item in a single round trip
+    @Query(value = "select coalesce(sum(case when i.type = 'T' then i.qty else 0 end), 0) as \"topUp\", " +
+            "coalesce(sum(case when i.type = 'W' then i.qty else 0 end), 0) as \"withdraw\", " +
+            "(select coalesce(sum(o.qty), 0) from orders o where o.item_id = :itemId) as \"ordered\" " +
+            "from inventories i " +
+            "where i.item_id = :itemId",
+            nativeQuery = true)
+    StockSummary sumStockByItemId(@Param("itemId") Integer itemId);
 
-    @Query("select coalesce(sum(i.qty), 0) " +
+    // [itemId, topUp - withdraw] per item
+    @Query("select i.item.id, " +
+            "coalesce(sum(case when i.type = com.obs.inventory.entity.InventoryType.TOP_UP then i.qty else -i.qty end), 0) " +
             "from InventoryEntity i " +
-            "where i.item.id = :itemId and i.type = :type")
-    long sumQtyByItemIdAndType(@Param("itemId") Integer itemId,
-                               @Param("type") String type);
+            "where i.item.id in :itemIds " +
+            "group by i.item.id")
+    List<Object[]> sumNetQtyByItemIds(@Param("itemIds") Collection<Integer> itemIds);
+
+    @Query("select max(i.id) from InventoryEntity i")
+    Integer findMaxId();
+
+    @Query("select i.id from InventoryEntity i where i.id in :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    interface StockSummary {
+
+        Number getTopUp();
+
+        Number getWithdraw();
+
+        Number getOrdered();
+    }
 }
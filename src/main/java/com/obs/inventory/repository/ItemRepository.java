@@ -1,13 +1,51 @@
 package com.obs.inventory.repository;
 
 import com.obs.inventory.entity.ItemEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ItemRepository extends JpaRepository<ItemEntity, String>, JpaSpecificationExecutor<ItemEntity> {
+public interface ItemRepository extends JpaRepository<ItemEntity, String>, JpaSpecificationExecutor<ItemEntity>,
+        InsertRepository<ItemEntity>, SliceRepository<ItemEntity> {
 
+    // item listing / search results (and their count) go to the query cache,
+    // Hibernate drops them whenever the items table is written through JPA
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ItemEntity.QUERY_CACHE_REGION)
+    })
+    Page<ItemEntity> findAll(Specification<ItemEntity> spec, Pageable pageable);
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ItemEntity.QUERY_CACHE_REGION)
+    })
+    Slice<ItemEntity> findSlice(Specification<ItemEntity> spec, Pageable pageable);
+
+    List<ItemEntity> findByIdIn(Collection<Integer> ids);
+
+    @Query("select min(i.id) from ItemEntity i")
+    Integer findMinId();
+
+    @Query("select max(i.id) from ItemEntity i")
+    Integer findMaxId();
+
+    // [id, name], read inside a transaction to load the name index without materializing the table
+    @Query("select i.id, i.name from ItemEntity i")
+    Stream<Object[]> streamIdAndName();
 }
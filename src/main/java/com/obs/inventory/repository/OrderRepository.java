@@ -1,17 +1,34 @@
 package com.obs.inventory.repository;
 
 import com.obs.inventory.entity.OrderEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface OrderRepository extends JpaRepository<OrderEntity, String>, JpaSpecificationExecutor<OrderEntity> {
+public interface OrderRepository extends JpaRepository<OrderEntity, String>, JpaSpecificationExecutor<OrderEntity>,
+        InsertRepository<OrderEntity>, SliceRepository<OrderEntity>, ProjectionRepository<OrderEntity> {
+
+    // row lock for update / delete: the stock delta is computed from this read
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from OrderEntity o where o.orderNo = :orderNo")
+    Optional<OrderEntity> findByIdForUpdate(@Param("orderNo") String orderNo);
 
-    @Query("select coalesce(sum(o.qty), 0) " +
+    // [itemId, orderedQty] per item
+    @Query("select o.item.id, coalesce(sum(o.qty), 0) " +
             "from OrderEntity o " +
-            "where o.item.id = :itemId")
-    long sumOrderedQtyByItemId(@Param("itemId") Integer itemId);
+            "where o.item.id in :itemIds " +
+            "group by o.item.id")
+    List<Object[]> sumOrderedQtyByItemIds(@Param("itemIds") Collection<Integer> itemIds);
+
+    @Query("select o.orderNo from OrderEntity o where o.orderNo in :orderNos")
+    List<String> findExistingOrderNos(@Param("orderNos") Collection<String> orderNos);
 }
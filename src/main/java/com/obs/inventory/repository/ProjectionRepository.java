@@ -0,0 +1,27 @@
+package com.obs.inventory.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Listing straight into a DTO. Implemented by {@link BaseJpaRepository}, available to every repository that extends this interface.
+ *
+ * The select is {@code new type(paths...)} built with the Criteria API, the where clause is only what the
+ * specification adds: no entity is hydrated, and a filter that is not set is not in the SQL at all, so the
+ * indexes of the filters that are set apply. Paths are attribute paths ({@code "item.id"} reads the FK column).
+ */
+public interface ProjectionRepository<T> {
+
+    <R> Page<R> findProjectedPage(Specification<T> spec, Pageable pageable, Class<R> type, String... paths);
+
+    // pageSize + 1 rows, like SliceRepository.findSlice, no count
+    <R> Slice<R> findProjectedSlice(Specification<T> spec, Pageable pageable, Class<R> type, String... paths);
+
+    // first limit rows in sort order, for keyset (seek) paging
+    <R> List<R> findProjected(Specification<T> spec, Sort sort, int limit, Class<R> type, String... paths);
+}
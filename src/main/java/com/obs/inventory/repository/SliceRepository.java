@@ -0,0 +1,14 @@
+package com.obs.inventory.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Count-free listing. Implemented by {@link BaseJpaRepository}, available to every repository that extends this interface.
+ */
+public interface SliceRepository<T> {
+
+    // reads pageSize + 1 rows to know whether a next page exists, never runs the COUNT a Page needs
+    Slice<T> findSlice(Specification<T> spec, Pageable pageable);
+}
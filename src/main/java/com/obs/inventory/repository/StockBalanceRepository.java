@@ -0,0 +1,71 @@
+package com.obs.inventory.repository;
+
+import com.obs.inventory.entity.StockBalanceEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockBalanceRepository extends JpaRepository<StockBalanceEntity, Integer> {
+
+    @Modifying
+    @Query("update StockBalanceEntity s " +
+            "set s.onHand = s.onHand + :delta, s.version = s.version + 1 " +
+            "where s.itemId = :itemId")
+    int addOnHand(@Param("itemId") Integer itemId,
+                  @Param("delta") long delta);
+
+    // conditional decrement, 0 rows updated means not enough stock (or no balance row yet)
+    @Modifying
+    @Query("update StockBalanceEntity s " +
+            "set s.onHand = s.onHand - :qty, s.version = s.version + 1 " +
+            "where s.itemId = :itemId and s.onHand >= :qty")
+    int reserve(@Param("itemId") Integer itemId,
+                @Param("qty") long qty);
+
+    // overwrites on_hand, only for reconciliation against the ledger
+    @Modifying
+    @Query("update StockBalanceEntity s " +
+            "set s.onHand = :onHand, s.version = s.version + 1 " +
+            "where s.itemId = :itemId")
+    int setOnHand(@Param("itemId") Integer itemId,
+                  @Param("onHand") long onHand);
+
+    // scalar read, bypasses the persistence context so it sees the bulk updates above
+    @Query("select s.onHand as onHand, s.version as version " +
+            "from StockBalanceEntity s " +
+            "where s.itemId = :itemId")
+    BalanceView findBalanceByItemId(@Param("itemId") Integer itemId);
+
+    @Query("select s.itemId from StockBalanceEntity s where s.itemId in :itemIds")
+    List<Integer> findExistingItemIds(@Param("itemIds") Collection<Integer> itemIds);
+
+    // serializes the first touch of an item: whoever holds the item row creates its balance row
+    @Query(value = "select id from items where id in (:itemIds) order by id for update", nativeQuery = true)
+    List<Integer> lockItems(@Param("itemIds") Collection<Integer> itemIds);
+
+    // balance row locks of an item id range; every ledger writer holds its item's lock until commit
+    @Query(value = "select item_id from stock_balances where item_id between :fromId and :toId " +
+            "order by item_id for update", nativeQuery = true)
+    List<Integer> lockBalances(@Param("fromId") Integer fromId,
+                               @Param("toId") Integer toId);
+
+    // [itemId, checkpoint balance, on_hand] of the items whose balance row disagrees with their checkpoint
+    @Query(value = "select b.item_id, c.balance, b.on_hand " +
+            "from stock_balances b " +
+            "join stock_checkpoints c on c.item_id = b.item_id " +
+            "where b.item_id in (:itemIds) and b.on_hand <> c.balance", nativeQuery = true)
+    List<Object[]> findDrift(@Param("itemIds") Collection<Integer> itemIds);
+
+    interface BalanceView {
+
+        Long getOnHand();
+
+        Long getVersion();
+    }
+}
@@ -0,0 +1,50 @@
+package com.obs.inventory.repository;
+
+import com.obs.inventory.entity.StockCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface StockCheckpointRepository extends JpaRepository<StockCheckpointEntity, Integer> {
+
+    // a number above every ledger_seq handed out so far
+    @Query(value = "select next value for ledger_seq", nativeQuery = true)
+    long nextLedgerSeq();
+
+    /**
+     * Rolls the checkpoint of the given items forward to highWater in one statement:
+     * previous balance + rows with ledger_seq in (previous ledger_seq, highWater].
+     * Only correct while the caller holds the stock_balances row locks of these items and read highWater
+     * after taking them: no ledger row of them can be uncommitted then, and later ones number above highWater.
+     */
+    @Modifying
+    @Query(value = "merge into stock_checkpoints (item_id, balance, ledger_seq, checkpoint_at) key (item_id) " +
+            "select it.id, " +
+            "coalesce(c.balance, 0) " +
+            "+ (select coalesce(sum(case when i.type = 'T' then i.qty else -i.qty end), 0) " +
+            "   from inventories i " +
+            "   where i.item_id = it.id " +
+            "   and i.ledger_seq > coalesce(c.ledger_seq, 0) and i.ledger_seq <= :highWater) " +
+            "- (select coalesce(sum(o.qty), 0) " +
+            "   from orders o " +
+            "   where o.item_id = it.id " +
+            "   and o.ledger_seq > coalesce(c.ledger_seq, 0) and o.ledger_seq <= :highWater), " +
+            ":highWater, :checkpointAt " +
+            "from items it " +
+            "left join stock_checkpoints c on c.item_id = it.id " +
+            "where it.id in (:itemIds)",
+            nativeQuery = true)
+    int rollForward(@Param("itemIds") Collection<Integer> itemIds,
+                    @Param("highWater") long highWater,
+                    @Param("checkpointAt") LocalDateTime checkpointAt);
+
+    @Modifying
+    @Query("delete from StockCheckpointEntity c where c.itemId = :itemId")
+    int deleteByItemId(@Param("itemId") Integer itemId);
+}
@@ -1,20 +1,41 @@
 package com.obs.inventory.service;
 
+import com.obs.inventory.dto.InventoryIngestResultDto;
 import com.obs.inventory.dto.InventoryRequestDto;
 import com.obs.inventory.dto.InventoryResponseDto;
+import com.obs.inventory.dto.response.CursorPageDto;
 import com.obs.inventory.dto.response.ResponseMessage;
 import com.obs.inventory.dto.search.InventorySearchDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.io.InputStream;
+import java.io.OutputStream;
 
 public interface InventoryService {
 
     Page<InventoryResponseDto> getInventoriesPage(InventorySearchDto inventorySearchDto, Pageable pageable);
 
+    // same listing without the count query
+    Slice<InventoryResponseDto> getInventoriesSlice(InventorySearchDto inventorySearchDto, Pageable pageable);
+
+    // keyset page ordered by id, cursor is the nextCursor of the previous page (null for the first)
+    CursorPageDto<InventoryResponseDto> getInventoriesAfter(InventorySearchDto inventorySearchDto, String cursor, int size);
+
+    // rejects an unknown type filter (INV-VAL-006); called before a response is streamed, when an error can still be sent
+    void validateInventorySearch(InventorySearchDto inventorySearchDto);
+
+    // NDJSON of every row matching the filters, ordered by id, streamed without holding the result in memory
+    long exportInventories(InventorySearchDto inventorySearchDto, OutputStream out);
+
     ResponseMessage<InventoryResponseDto> getInventory(Integer id);
 
     ResponseMessage<InventoryResponseDto> createInventory(InventoryRequestDto request);
 
+    // CSV (id,itemId,qty,type) or NDJSON rows, parsed and inserted as a stream
+    ResponseMessage<InventoryIngestResultDto> ingestInventories(InputStream body, String contentType);
+
     ResponseMessage<InventoryResponseDto> updateInventory(InventoryRequestDto request);
 
     ResponseMessage<Object> deleteInventory(Integer id);
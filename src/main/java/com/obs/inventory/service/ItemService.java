@@ -1,16 +1,31 @@
 package com.obs.inventory.service;
 
+import com.obs.inventory.dto.ItemCacheStatsDto;
 import com.obs.inventory.dto.ItemRequestDto;
 import com.obs.inventory.dto.ItemResponseDto;
+import com.obs.inventory.dto.SecondLevelCacheStatsDto;
 import com.obs.inventory.dto.response.ResponseMessage;
 import com.obs.inventory.dto.search.ItemSearchDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface ItemService {
 
     Page<ItemResponseDto> getItemsPage(ItemSearchDto itemSearchDto, Pageable pageable);         // listing + remaining stock
 
+    Slice<ItemResponseDto> getItemsSlice(ItemSearchDto itemSearchDto, Pageable pageable);       // same listing without the count query
+
+    ResponseMessage<Integer> searchItemIds(String term, int limit);     // ranked ids from the in-memory name index
+
+    ResponseMessage<Integer> rebuildNameIndex();
+
+    ResponseMessage<ItemCacheStatsDto> getCacheStats();         // item cache used by the order / inventory write paths
+
+    ResponseMessage<SecondLevelCacheStatsDto> getSecondLevelCacheStats();     // Hibernate item entity / query regions
+
+    String getItemETag(Integer id);     // item content + stock balance version, without computing the stock
+
     ResponseMessage<ItemResponseDto> getItem(Integer id);       // get detail + remaining stock
 
     ResponseMessage<ItemResponseDto> createItem(ItemRequestDto request);
@@ -1,20 +1,40 @@
 package com.obs.inventory.service;
 
+import com.obs.inventory.dto.OrderBulkLineDto;
 import com.obs.inventory.dto.OrderRequestDto;
 import com.obs.inventory.dto.OrderResponseDto;
+import com.obs.inventory.dto.response.CursorPageDto;
 import com.obs.inventory.dto.response.ResponseMessage;
 import com.obs.inventory.dto.search.OrderSearchDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.io.OutputStream;
+import java.util.List;
 
 public interface OrderService {
 
     Page<OrderResponseDto> getOrdersPages(OrderSearchDto orderSearchDto, Pageable pageable);
 
+    // same listing without the count query
+    Slice<OrderResponseDto> getOrdersSlice(OrderSearchDto orderSearchDto, Pageable pageable);
+
+    // keyset page ordered by orderNo, cursor is the nextCursor of the previous page (null for the first)
+    CursorPageDto<OrderResponseDto> getOrdersAfter(OrderSearchDto orderSearchDto, String cursor, int size);
+
+    // NDJSON of every order matching the filters, ordered by orderNo, streamed without holding the result in memory
+    long exportOrders(OrderSearchDto orderSearchDto, OutputStream out);
+
+    // hash of the order content, computed from the response already loaded by getOrder, no second read
+    String getOrderETag(OrderResponseDto order);
+
     ResponseMessage<OrderResponseDto> getOrder(String orderNo);
 
     ResponseMessage<OrderResponseDto> createOrder(OrderRequestDto request);
 
+    ResponseMessage<OrderBulkLineDto> createOrders(List<OrderRequestDto> requests);
+
     ResponseMessage<OrderResponseDto> updateOrder(OrderRequestDto request);
 
     ResponseMessage<Object> deleteOrder(String orderNo);
@@ -0,0 +1,10 @@
+package com.obs.inventory.service;
+
+import com.obs.inventory.dto.StockCheckpointResultDto;
+import com.obs.inventory.dto.response.ResponseMessage;
+
+public interface StockCheckpointService {
+
+    ResponseMessage<StockCheckpointResultDto> createCheckpoints();
+
+}
@@ -1,7 +1,32 @@
 package com.obs.inventory.service;
 
+import com.obs.inventory.dto.StockCacheStatsDto;
+import com.obs.inventory.dto.response.ResponseMessage;
+
+import java.util.Collection;
+import java.util.Map;
+
 public interface StockService {
 
     long getRemainingStock(Integer itemId);
 
+    // itemId -> remaining stock, resolved with a constant number of queries
+    Map<Integer, Long> getRemainingStock(Collection<Integer> itemIds);
+
+    // version of the balance row, -1 while the item has no balance row yet
+    long getStockVersion(Integer itemId);
+
+    // atomically takes qty from the balance, false when there is not enough stock
+    boolean reserveStock(Integer itemId, long qty);
+
+    // must be called before the movement / order itself is persisted
+    void adjustStock(Integer itemId, long delta);
+
+    // history of the item was rewritten (delete / update), its checkpoint is no longer valid
+    void invalidateCheckpoint(Integer itemId);
+
+    ResponseMessage<StockCacheStatsDto> getCacheStats();
+
+    ResponseMessage<StockCacheStatsDto> rebuildCache();
+
 }
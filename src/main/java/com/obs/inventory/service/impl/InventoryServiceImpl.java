@@ -1,60 +1,151 @@
 package com.obs.inventory.service.impl;
 
+import com.obs.inventory.cache.ItemCache;
+import com.obs.inventory.dto.InventoryIngestErrorDto;
+import com.obs.inventory.dto.InventoryIngestResultDto;
 import com.obs.inventory.dto.InventoryRequestDto;
 import com.obs.inventory.dto.InventoryResponseDto;
+import com.obs.inventory.dto.response.CursorPageDto;
+import com.obs.inventory.dto.response.CursorToken;
 import com.obs.inventory.dto.response.ResponseMessage;
 import com.obs.inventory.dto.search.InventorySearchDto;
 import com.obs.inventory.entity.InventoryEntity;
+import com.obs.inventory.entity.InventoryType;
 import com.obs.inventory.entity.ItemEntity;
 import com.obs.inventory.exception.ErrorBusinessException;
+import com.obs.inventory.repository.ExportRepository;
 import com.obs.inventory.repository.InventoryRepository;
 import com.obs.inventory.repository.ItemRepository;
 import com.obs.inventory.service.InventoryService;
+import com.obs.inventory.service.StockService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class InventoryServiceImpl implements InventoryService {
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
 
+    private static final String CURSOR_LISTING = "inventories";
+
+    private static final int MAX_CURSOR_SIZE = 1000;
+
+    // listing select, matches the InventoryResponseDto(id, itemId, qty, type) constructor
+    private static final String[] LISTING_COLUMNS = {"id", "item.id", "qty", "type"};
+
     private final InventoryRepository inventoryRepository;
 
     private final ItemRepository itemRepository;
 
+    private final ExportRepository exportRepository;
+
+    private final StockService stockService;
+
+    private final ItemCache itemCache;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // the web layer's mapper: /ingest rows parse like /create bodies, /export rows match the JSON endpoints
+    private final JsonMapper jsonMapper;
+
+    @Value("${inventory.ingest.batch-size:500}")
+    private int ingestBatchSize;
+
+    @Value("${inventory.ingest.max-reported-errors:100}")
+    private int maxReportedErrors;
+
     @Override
+    @Transactional(readOnly = true)
     public Page<InventoryResponseDto> getInventoriesPage(InventorySearchDto inventorySearchDto, Pageable pageable) {
-        Specification<InventoryEntity> spec = (root, query, cb) -> cb.conjunction();
+        return inventoryRepository.findProjectedPage(buildSpecification(inventorySearchDto), pageable,
+                InventoryResponseDto.class, LISTING_COLUMNS);
+    }
 
-        if (inventorySearchDto.getId() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.equal(root.get("id"), inventorySearchDto.getId()));
-        }
+    @Override
+    public Slice<InventoryResponseDto> getInventoriesSlice(InventorySearchDto inventorySearchDto, Pageable pageable) {
+        return inventoryRepository.findProjectedSlice(buildSpecification(inventorySearchDto), pageable,
+                InventoryResponseDto.class, LISTING_COLUMNS);
+    }
 
-        if (inventorySearchDto.getItemId() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.equal(root.join("item").get("id"), inventorySearchDto.getItemId()));
+    @Override
+    public CursorPageDto<InventoryResponseDto> getInventoriesAfter(InventorySearchDto inventorySearchDto,
+                                                                   String cursor,
+                                                                   int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_SIZE));
+        Specification<InventoryEntity> spec = buildSpecification(inventorySearchDto);
+
+        String lastKey = CursorToken.decode(CURSOR_LISTING, cursor, "INV-PAGE-001");
+        if (lastKey != null) {
+            int lastId = parseCursorId(lastKey);
+            spec = spec.and((root, query, cb) -> cb.greaterThan(root.get("id"), lastId));
         }
 
+        // seek on the primary key, one row more than the page tells whether there is a next one, no count
+        List<InventoryResponseDto> rows = inventoryRepository.findProjected(spec, Sort.by("id"), pageSize + 1,
+                InventoryResponseDto.class, LISTING_COLUMNS);
+        boolean hasNext = rows.size() > pageSize;
+        List<InventoryResponseDto> content = hasNext ? rows.subList(0, pageSize) : rows;
+
+        return CursorPageDto.<InventoryResponseDto>builder()
+                .content(content)
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorToken.encode(CURSOR_LISTING, content.get(pageSize - 1).getId()) : null)
+                .build();
+    }
+
+    @Override
+    public void validateInventorySearch(InventorySearchDto inventorySearchDto) {
         if (StringUtils.hasText(inventorySearchDto.getType())) {
-            spec = spec.and((root, query, cb) ->
-                    cb.equal(cb.upper(root.get("type")),
-                            inventorySearchDto.getType().toUpperCase(Locale.ROOT)));
+            parseType(inventorySearchDto.getType());
         }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportInventories(InventorySearchDto inventorySearchDto, OutputStream out) {
+        InventoryType type = StringUtils.hasText(inventorySearchDto.getType())
+                ? parseType(inventorySearchDto.getType())
+                : null;
 
-        return inventoryRepository.findAll(spec, pageable)
-                .map(this::toDto);
+        NdjsonWriter writer = new NdjsonWriter(out, jsonMapper);
+        exportRepository.streamInventories(inventorySearchDto, type, writer::write);
+        long rows = writer.finish();
+        log.debug("Exported {} inventory rows", rows);
+        return rows;
     }
 
     @Override
@@ -67,29 +158,82 @@ public class InventoryServiceImpl implements InventoryService {
     }
 
     @Override
+    @Transactional
     public ResponseMessage<InventoryResponseDto> createInventory(InventoryRequestDto request) {
         validateInventoryRequest(request);
 
-        if (inventoryRepository.existsById(String.valueOf(request.getId()))) {
-            throw new ErrorBusinessException("Inventory ID already exists", "INV-001");
-        }
-
-        ItemEntity item = itemRepository.findById(String.valueOf(request.getItemId()))
-                .orElseThrow(() -> new ErrorBusinessException("Item not found", "INV-ITEM-404"));
+        ItemEntity item = findItemReference(request.getItemId());
 
         InventoryEntity entity = InventoryEntity.builder()
                 .id(request.getId())
                 .item(item)
                 .qty(request.getQty())
-                .type(request.getType().trim().toUpperCase())
+                .type(parseType(request.getType()))
                 .build();
 
-        entity = inventoryRepository.save(entity);
+        stockService.adjustStock(request.getItemId(), stockDelta(entity));
+        try {
+            entity = inventoryRepository.persistAndFlush(entity);
+        } catch (DuplicateKeyException ex) {
+            // rolls back the stock adjustment together with the insert
+            throw new ErrorBusinessException("Inventory ID already exists", "INV-001");
+        }
 
         return buildResponse(Collections.singletonList(toDto(entity)), false, null,
                 "Inventory created successfully");
     }
 
+    @Override
+    public ResponseMessage<InventoryIngestResultDto> ingestInventories(InputStream body, String contentType) {
+        boolean csv = isCsv(contentType);
+        long start = System.nanoTime();
+
+        InventoryIngestResultDto result = InventoryIngestResultDto.builder()
+                .accepted(0L)
+                .rejected(0L)
+                .batches(0)
+                .build();
+        List<IngestRow> batch = new ArrayList<>(ingestBatchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank() || (csv && lineNo == 1 && isCsvHeader(line))) {
+                    continue;
+                }
+                try {
+                    InventoryRequestDto request = csv ? parseCsv(line) : parseNdjson(line);
+                    validateInventoryRequest(request);
+                    batch.add(new IngestRow(lineNo, request));
+                } catch (ErrorBusinessException ex) {
+                    reject(result, lineNo, ex.getErrorNumber(), ex.getMessage());
+                    continue;
+                }
+                if (batch.size() >= ingestBatchSize) {
+                    ingestBatch(batch, result);
+                    batch.clear();
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Inventory ingest aborted while reading request body", ex);
+            throw new ErrorBusinessException("Failed to read request body", "INV-ING-002");
+        }
+        if (!batch.isEmpty()) {
+            ingestBatch(batch, result);
+        }
+
+        long nanos = Math.max(1L, System.nanoTime() - start);
+        long rows = result.getAccepted() + result.getRejected();
+        result.setDurationMs(nanos / 1_000_000);
+        result.setRowsPerSecond(rows * 1_000_000_000L / nanos);
+
+        return buildResponse(Collections.singletonList(result), false, null,
+                String.format("Inventory ingest processed: %d accepted, %d rejected",
+                        result.getAccepted(), result.getRejected()));
+    }
+
     @Override
     public ResponseMessage<InventoryResponseDto> updateInventory(InventoryRequestDto request) {
         /**
@@ -124,10 +268,13 @@ public class InventoryServiceImpl implements InventoryService {
     }
 
     @Override
+    @Transactional
     public ResponseMessage<Object> deleteInventory(Integer id) {
         InventoryEntity entity = inventoryRepository.findById(String.valueOf(id))
                 .orElseThrow(() -> new ErrorBusinessException("Inventory not found", "INV-404"));
 
+        stockService.adjustStock(entity.getItem().getId(), -stockDelta(entity));
+        stockService.invalidateCheckpoint(entity.getItem().getId());
         inventoryRepository.delete(entity);
         return buildResponse(Collections.emptyList(), false, null,
                 "Inventory deleted successfully");
@@ -135,15 +282,200 @@ public class InventoryServiceImpl implements InventoryService {
 
     // =================HELPER=====================
 
+    // only the filters that are set become predicates, an unset one is not in the SQL at all
+    private Specification<InventoryEntity> buildSpecification(InventorySearchDto inventorySearchDto) {
+        Specification<InventoryEntity> spec = (root, query, cb) -> cb.conjunction();
+
+        if (inventorySearchDto.getId() != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.equal(root.get("id"), inventorySearchDto.getId()));
+        }
+
+        if (inventorySearchDto.getItemId() != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.equal(root.get("item").get("id"), inventorySearchDto.getItemId()));
+        }
+
+        if (StringUtils.hasText(inventorySearchDto.getType())) {
+            // normalized here, the column is compared as stored so the (type, item_id) index applies
+            InventoryType type = parseType(inventorySearchDto.getType());
+            spec = spec.and((root, query, cb) ->
+                    cb.equal(root.get("type"), type));
+        }
+
+        return spec;
+    }
+
+    // an item in the cache exists, the FK only needs a JPA reference, no item SELECT
+    private ItemEntity findItemReference(Integer itemId) {
+        if (itemCache.getPrice(itemId).isPresent()) {
+            return itemRepository.getReferenceById(String.valueOf(itemId));
+        }
+        long stamp = itemCache.generation();
+        ItemEntity item = itemRepository.findById(String.valueOf(itemId))
+                .orElseThrow(() -> new ErrorBusinessException("Item not found", "INV-ITEM-404"));
+        itemCache.put(item.getId(), item.getPrice(), stamp);
+        return item;
+    }
+
+    private int parseCursorId(String lastKey) {
+        try {
+            return Integer.parseInt(lastKey);
+        } catch (NumberFormatException ex) {
+            throw new ErrorBusinessException("Invalid cursor", "INV-PAGE-001");
+        }
+    }
+
     private InventoryResponseDto toDto(InventoryEntity entity) {
         InventoryResponseDto dto = new InventoryResponseDto();
         dto.setId(entity.getId());
         dto.setItemId(entity.getItem().getId());
         dto.setQty(entity.getQty());
-        dto.setType(entity.getType());
+        dto.setType(entity.getType().getCode());
         return dto;
     }
 
+    private boolean isCsv(String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.contains("csv")) {
+            return true;
+        }
+        if (type.contains("ndjson") || type.contains("jsonl")) {
+            return false;
+        }
+        throw new ErrorBusinessException("Content type must be text/csv or application/x-ndjson", "INV-ING-000");
+    }
+
+    private boolean isCsvHeader(String line) {
+        return line.trim().toLowerCase(Locale.ROOT).startsWith("id");
+    }
+
+    // id,itemId,qty,type
+    private InventoryRequestDto parseCsv(String line) {
+        String[] cells = line.split(",", -1);
+        if (cells.length != 4) {
+            throw new ErrorBusinessException("Row must have 4 columns: id,itemId,qty,type", "INV-ING-001");
+        }
+        try {
+            return InventoryRequestDto.builder()
+                    .id(cells[0].isBlank() ? null : Integer.valueOf(cells[0].trim()))
+                    .itemId(cells[1].isBlank() ? null : Integer.valueOf(cells[1].trim()))
+                    .qty(cells[2].isBlank() ? null : Long.valueOf(cells[2].trim()))
+                    .type(cells[3])
+                    .build();
+        } catch (NumberFormatException ex) {
+            throw new ErrorBusinessException("Invalid number in row", "INV-ING-001");
+        }
+    }
+
+    private InventoryRequestDto parseNdjson(String line) {
+        try {
+            return jsonMapper.readValue(line, InventoryRequestDto.class);
+        } catch (RuntimeException ex) {
+            throw new ErrorBusinessException("Invalid JSON row", "INV-ING-001");
+        }
+    }
+
+    /**
+     * One transaction per batch: an id / item lookup with IN queries, one stock adjustment per item
+     * and a JDBC-batched insert. Locks on stock balances are only held for the batch.
+     */
+    private void ingestBatch(List<IngestRow> batch, InventoryIngestResultDto result) {
+        List<InventoryIngestErrorDto> rejected = new ArrayList<>();
+        Integer inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> insertBatch(batch, rejected));
+        } catch (RuntimeException ex) {
+            log.warn("Inventory ingest batch starting at line {} failed", batch.get(0).line(), ex);
+            rejected.clear();
+            batch.forEach(row -> rejected.add(InventoryIngestErrorDto.builder()
+                    .line(row.line())
+                    .errorNumber("INV-ING-003")
+                    .message("Batch failed: " + ex.getClass().getSimpleName())
+                    .build()));
+            inserted = 0;
+        }
+
+        result.setAccepted(result.getAccepted() + (inserted != null ? inserted : 0));
+        rejected.forEach(error -> reject(result, error.getLine(), error.getErrorNumber(), error.getMessage()));
+        result.setBatches(result.getBatches() + 1);
+    }
+
+    private int insertBatch(List<IngestRow> batch, List<InventoryIngestErrorDto> rejected) {
+        Set<Integer> ids = new HashSet<>();
+        Set<Integer> itemIds = new HashSet<>();
+        for (IngestRow row : batch) {
+            if (row.request().getId() != null) {
+                ids.add(row.request().getId());
+            }
+            itemIds.add(row.request().getItemId());
+        }
+        Set<Integer> existingIds = ids.isEmpty()
+                ? Collections.emptySet()
+                : new HashSet<>(inventoryRepository.findExistingIds(ids));
+        Map<Integer, ItemEntity> items = itemRepository.findByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemEntity::getId, Function.identity()));
+
+        Set<Integer> seenIds = new HashSet<>();
+        List<InventoryEntity> entities = new ArrayList<>(batch.size());
+        Map<Integer, Long> deltas = new TreeMap<>();
+        for (IngestRow row : batch) {
+            InventoryRequestDto request = row.request();
+            if (request.getId() != null
+                    && (existingIds.contains(request.getId()) || !seenIds.add(request.getId()))) {
+                rejected.add(ingestError(row.line(), "INV-001", "Inventory ID already exists"));
+                continue;
+            }
+            ItemEntity item = items.get(request.getItemId());
+            if (item == null) {
+                rejected.add(ingestError(row.line(), "INV-ITEM-404", "Item not found"));
+                continue;
+            }
+            InventoryEntity entity = InventoryEntity.builder()
+                    .id(request.getId())
+                    .item(item)
+                    .qty(request.getQty())
+                    .type(parseType(request.getType()))
+                    .build();
+            entities.add(entity);
+            deltas.merge(item.getId(), stockDelta(entity), Long::sum);
+        }
+
+        // item id order, so concurrent ingests lock balances in the same order
+        deltas.forEach(stockService::adjustStock);
+        if (!entities.isEmpty()) {
+            inventoryRepository.persistAll(entities);
+        }
+        return entities.size();
+    }
+
+    private InventoryIngestErrorDto ingestError(int line, String errorNumber, String message) {
+        return InventoryIngestErrorDto.builder()
+                .line(line)
+                .errorNumber(errorNumber)
+                .message(message)
+                .build();
+    }
+
+    private void reject(InventoryIngestResultDto result, int line, String errorNumber, String message) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(ingestError(line, errorNumber, message));
+        }
+    }
+
+    private long stockDelta(InventoryEntity entity) {
+        return entity.getType().signed(entity.getQty());
+    }
+
+    private InventoryType parseType(String code) {
+        InventoryType type = InventoryType.fromCode(code);
+        if (type == null) {
+            throw new ErrorBusinessException("Inventory type must be 'T' or 'W'", "INV-VAL-006");
+        }
+        return type;
+    }
+
     private <T> ResponseMessage<T> buildResponse(List<T> data,
                                                  boolean isError,
                                                  String errorNumber,
@@ -161,8 +493,10 @@ public class InventoryServiceImpl implements InventoryService {
         if (request == null) {
             throw new ErrorBusinessException("Request body cannot be null", "INV-VAL-000");
         }
-        if (request.getId() == null) {
-            throw new ErrorBusinessException("Inventory ID is required", "INV-VAL-001");
+        if (request.getId() != null
+                && (request.getId() <= 0 || request.getId() >= InventoryEntity.GENERATED_ID_FROM)) {
+            throw new ErrorBusinessException("Inventory ID must be between 1 and "
+                    + (InventoryEntity.GENERATED_ID_FROM - 1) + ", omit it to get a generated one", "INV-VAL-001");
         }
         if (request.getItemId() == null) {
             throw new ErrorBusinessException("Item ID is required", "INV-VAL-002");
@@ -176,10 +510,9 @@ public class InventoryServiceImpl implements InventoryService {
         if (request.getType() == null || request.getType().trim().isEmpty()) {
             throw new ErrorBusinessException("Inventory type is required", "INV-VAL-005");
         }
-        String type = request.getType().trim().toUpperCase();
-        if (!type.equals("T") && !type.equals("W")) {
-            throw new ErrorBusinessException("Inventory type must be 'T' or 'W'", "INV-VAL-006");
-        }
-        request.setType(type);
+        request.setType(parseType(request.getType()).getCode());
+    }
+
+    private record IngestRow(int line, InventoryRequestDto request) {
     }
 }
@@ -1,7 +1,11 @@
 package com.obs.inventory.service.impl;
 
+import com.obs.inventory.cache.ItemCache;
+import com.obs.inventory.cache.ItemNameIndex;
+import com.obs.inventory.dto.ItemCacheStatsDto;
 import com.obs.inventory.dto.ItemRequestDto;
 import com.obs.inventory.dto.ItemResponseDto;
+import com.obs.inventory.dto.SecondLevelCacheStatsDto;
 import com.obs.inventory.dto.response.ResponseMessage;
 import com.obs.inventory.dto.search.ItemSearchDto;
 import com.obs.inventory.entity.ItemEntity;
@@ -9,46 +13,125 @@ import com.obs.inventory.exception.ErrorBusinessException;
 import com.obs.inventory.repository.ItemRepository;
 import com.obs.inventory.service.ItemService;
 import com.obs.inventory.service.StockService;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
 
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     private final ItemRepository itemRepository;
 
     private final StockService stockService;
 
+    private final ItemNameIndex itemNameIndex;
+
+    private final ItemCache itemCache;
+
+    private final EntityManagerFactory entityManagerFactory;
+
     @Override
     public Page<ItemResponseDto> getItemsPage(ItemSearchDto itemSearchDto, Pageable pageable) {
-        Specification<ItemEntity> spec = (root, query, cb) -> cb.conjunction();
+        Page<ItemEntity> page = itemRepository.findAll(buildSpecification(itemSearchDto), pageable);
+        Map<Integer, Long> remaining = remainingStockOf(page.getContent());
 
-        if (itemSearchDto.getId() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.equal(root.get("id"), itemSearchDto.getId()));
-        }
+        return page.map(entity -> toDto(entity, remaining.getOrDefault(entity.getId(), 0L)));
+    }
 
-        if (StringUtils.hasText(itemSearchDto.getName())) {
-            String likeName = "%" + itemSearchDto.getName().toLowerCase(Locale.ROOT) + "%";
-            spec = spec.and((root, query, cb) ->
-                    cb.like(cb.lower(root.get("name")), likeName));
+    @Override
+    public Slice<ItemResponseDto> getItemsSlice(ItemSearchDto itemSearchDto, Pageable pageable) {
+        Slice<ItemEntity> slice = itemRepository.findSlice(buildSpecification(itemSearchDto), pageable);
+        Map<Integer, Long> remaining = remainingStockOf(slice.getContent());
+
+        return slice.map(entity -> toDto(entity, remaining.getOrDefault(entity.getId(), 0L)));
+    }
+
+    @Override
+    public ResponseMessage<Integer> searchItemIds(String term, int limit) {
+        if (!StringUtils.hasText(term)) {
+            throw new ErrorBusinessException("Search term is required", "ITEM-SRCH-001");
         }
+        List<Integer> ids = itemNameIndex.search(term, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
+
+        return buildResponse(ids, false, null, "Success search items");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseMessage<Integer> rebuildNameIndex() {
+        warmUpNameIndex();
+        return buildResponse(Collections.singletonList(itemNameIndex.size()), false, null,
+                "Item name index rebuilt successfully");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUpNameIndex() {
+        // searches keep the previous index until the stream is done
+        itemNameIndex.rebuild(sink -> {
+            try (Stream<Object[]> rows = itemRepository.streamIdAndName()) {
+                rows.forEach(row -> sink.accept((Integer) row[0], (String) row[1]));
+            }
+        });
+        log.debug("Item name index loaded with {} items", itemNameIndex.size());
+    }
+
+    @Override
+    public ResponseMessage<ItemCacheStatsDto> getCacheStats() {
+        return buildResponse(Collections.singletonList(itemCache.stats()), false, null,
+                "Success get item cache stats");
+    }
+
+    @Override
+    public ResponseMessage<SecondLevelCacheStatsDto> getSecondLevelCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<SecondLevelCacheStatsDto> regions = List.of(
+                toStats(ItemEntity.CACHE_REGION, statistics.getDomainDataRegionStatistics(ItemEntity.CACHE_REGION)),
+                toStats(ItemEntity.QUERY_CACHE_REGION, statistics.getQueryRegionStatistics(ItemEntity.QUERY_CACHE_REGION)));
+        return buildResponse(regions, false, null, "Success get second-level cache stats");
+    }
+
+    @Override
+    public String getItemETag(Integer id) {
+        // served from the second-level cache, and the stock version from the stock cache
+        ItemEntity entity = itemRepository.findById(String.valueOf(id))
+                .orElseThrow(() -> new ErrorBusinessException("Item not found", "ITEM-404"));
 
-        return itemRepository.findAll(spec, pageable)
-                .map(this::toDto);
+        String content = entity.getName() + "|" + entity.getPrice().toPlainString();
+        return DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8))
+                + "-" + stockService.getStockVersion(id);
     }
 
     @Override
@@ -65,18 +148,20 @@ public class ItemServiceImpl implements ItemService {
     public ResponseMessage<ItemResponseDto> createItem(ItemRequestDto request) {
         validateItemRequest(request);
 
-        if (itemRepository.existsById(String.valueOf(request.getId()))) {
-            throw new ErrorBusinessException("Item ID already exists", "ITEM-001");
-        }
-
         ItemEntity entity = ItemEntity.builder()
                 .id(request.getId())
                 .name(request.getName())
                 .price(request.getPrice())
                 .build();
 
-        entity = itemRepository.save(entity);
-        ItemResponseDto dto = toDto(entity);
+        try {
+            entity = itemRepository.persistAndFlush(entity);
+        } catch (DuplicateKeyException ex) {
+            throw new ErrorBusinessException("Item ID already exists", "ITEM-001");
+        }
+        indexAfterCommit(entity.getId(), entity.getName());
+        // a new item has no movements yet
+        ItemResponseDto dto = toDto(entity, 0L);
 
         return buildResponse(Collections.singletonList(dto), false,
                 null, "Item created successfully");
@@ -93,6 +178,9 @@ public class ItemServiceImpl implements ItemService {
         entity.setPrice(request.getPrice());
 
         entity = itemRepository.save(entity);
+        Integer id = entity.getId();
+        afterCommit(() -> itemCache.invalidate(id));
+        indexAfterCommit(entity.getId(), entity.getName());
         ItemResponseDto dto = toDto(entity);
 
         return buildResponse(Collections.singletonList(dto), false,
@@ -105,6 +193,8 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new ErrorBusinessException("Item not found", "ITEM-404"));
 
         itemRepository.delete(entity);
+        afterCommit(() -> itemCache.invalidate(id));
+        indexAfterCommit(entity.getId(), null);
 
         return buildResponse(Collections.emptyList(), false,
                 null, "Item deleted successfully");
@@ -112,8 +202,70 @@ public class ItemServiceImpl implements ItemService {
 
     // ---------------------HELPER---------------------
 
+    private Specification<ItemEntity> buildSpecification(ItemSearchDto itemSearchDto) {
+        Specification<ItemEntity> spec = (root, query, cb) -> cb.conjunction();
+
+        if (itemSearchDto.getId() != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.equal(root.get("id"), itemSearchDto.getId()));
+        }
+
+        if (StringUtils.hasText(itemSearchDto.getName())) {
+            String likeName = "%" + itemSearchDto.getName().toLowerCase(Locale.ROOT) + "%";
+            spec = spec.and((root, query, cb) ->
+                    cb.like(cb.lower(root.get("name")), likeName));
+        }
+
+        return spec;
+    }
+
+    private Map<Integer, Long> remainingStockOf(List<ItemEntity> items) {
+        if (items.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Integer> itemIds = items.stream()
+                .map(ItemEntity::getId)
+                .toList();
+        return stockService.getRemainingStock(itemIds);
+    }
+
+    // null name removes the item
+    private void indexAfterCommit(Integer id, String name) {
+        afterCommit(name == null
+                ? () -> itemNameIndex.remove(id)
+                : () -> itemNameIndex.put(id, name));
+    }
+
+    // same rule as the stock cache: in-process copies change only once the row change is committed
+    private void afterCommit(Runnable apply) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+
+    // region statistics are null until the region is first used
+    private SecondLevelCacheStatsDto toStats(String region, CacheRegionStatistics statistics) {
+        return SecondLevelCacheStatsDto.builder()
+                .region(region)
+                .hits(statistics != null ? statistics.getHitCount() : 0L)
+                .misses(statistics != null ? statistics.getMissCount() : 0L)
+                .puts(statistics != null ? statistics.getPutCount() : 0L)
+                .size(statistics != null ? statistics.getElementCountInMemory() : 0L)
+                .build();
+    }
+
     private ItemResponseDto toDto(ItemEntity entity) {
-        long remaining = stockService.getRemainingStock(entity.getId());
+        return toDto(entity, stockService.getRemainingStock(entity.getId()));
+    }
+
+    private ItemResponseDto toDto(ItemEntity entity, long remaining) {
         ItemResponseDto dto = new ItemResponseDto();
         dto.setId(entity.getId());
         dto.setName(entity.getName());
@@ -0,0 +1,47 @@
+package com.obs.inventory.service.impl;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * One JSON document per line, written through a fixed size buffer so an export of any length
+ * only keeps the current row in memory. Rows are serialized with the application's JsonMapper,
+ * so an export honours the same {@code spring.jackson.*} settings as the JSON endpoints.
+ */
+final class NdjsonWriter {
+
+    private final OutputStream out;
+
+    private final JsonMapper jsonMapper;
+
+    private long rows;
+
+    NdjsonWriter(OutputStream out, JsonMapper jsonMapper) {
+        this.out = new BufferedOutputStream(out, 64 * 1024);
+        this.jsonMapper = jsonMapper;
+    }
+
+    void write(Object row) {
+        try {
+            out.write(jsonMapper.writeValueAsBytes(row));
+            out.write('\n');
+            rows++;
+        } catch (IOException ex) {
+            // client went away, stops the running query
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    long finish() {
+        try {
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return rows;
+    }
+}
@@ -1,27 +1,50 @@
 package com.obs.inventory.service.impl;
 
+import com.obs.inventory.cache.ItemCache;
+import com.obs.inventory.dto.OrderBulkLineDto;
 import com.obs.inventory.dto.OrderRequestDto;
 import com.obs.inventory.dto.OrderResponseDto;
+import com.obs.inventory.dto.response.CursorPageDto;
+import com.obs.inventory.dto.response.CursorToken;
 import com.obs.inventory.dto.response.ResponseMessage;
 import com.obs.inventory.dto.search.OrderSearchDto;
 import com.obs.inventory.entity.ItemEntity;
 import com.obs.inventory.entity.OrderEntity;
 import com.obs.inventory.exception.ErrorBusinessException;
+import com.obs.inventory.metrics.InventoryMetrics;
+import com.obs.inventory.repository.ExportRepository;
 import com.obs.inventory.repository.ItemRepository;
 import com.obs.inventory.repository.OrderRepository;
 import com.obs.inventory.service.OrderService;
 import com.obs.inventory.service.StockService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,28 +52,77 @@ public class OrderServiceImpl implements OrderService {
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
 
+    private static final String CURSOR_LISTING = "orders";
+
+    private static final int MAX_CURSOR_SIZE = 1000;
+
+    // listing select, matches the OrderResponseDto(orderNo, itemId, qty, price) constructor
+    private static final String[] LISTING_COLUMNS = {"orderNo", "item.id", "qty", "price"};
+
     private final OrderRepository orderRepository;
 
     private final ItemRepository itemRepository;
 
+    private final ExportRepository exportRepository;
+
     private final StockService stockService;
 
+    private final ItemCache itemCache;
+
+    private final InventoryMetrics inventoryMetrics;
+
+    // the web layer's mapper, export rows are serialized like the JSON endpoints
+    private final JsonMapper jsonMapper;
+
     @Override
+    @Transactional(readOnly = true)
     public Page<OrderResponseDto> getOrdersPages(OrderSearchDto orderSearchDto, Pageable pageable) {
-        Specification<OrderEntity> spec = (root, query, cb) -> cb.conjunction();
+        return orderRepository.findProjectedPage(buildSpecification(orderSearchDto), pageable,
+                OrderResponseDto.class, LISTING_COLUMNS);
+    }
 
-        if (StringUtils.hasText(orderSearchDto.getOrderNo())) {
-            spec = spec.and((root, query, cb) ->
-                    cb.equal(root.get("orderNo"), orderSearchDto.getOrderNo()));
-        }
+    @Override
+    public Slice<OrderResponseDto> getOrdersSlice(OrderSearchDto orderSearchDto, Pageable pageable) {
+        return orderRepository.findProjectedSlice(buildSpecification(orderSearchDto), pageable,
+                OrderResponseDto.class, LISTING_COLUMNS);
+    }
 
-        if (orderSearchDto.getItemId() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.equal(root.join("item").get("id"), orderSearchDto.getItemId()));
+    @Override
+    public CursorPageDto<OrderResponseDto> getOrdersAfter(OrderSearchDto orderSearchDto, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_SIZE));
+        Specification<OrderEntity> spec = buildSpecification(orderSearchDto);
+
+        String lastOrderNo = CursorToken.decode(CURSOR_LISTING, cursor, "ORD-PAGE-001");
+        if (lastOrderNo != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThan(root.get("orderNo"), lastOrderNo));
         }
 
-        return orderRepository.findAll(spec, pageable)
-                .map(this::toDto);
+        // seek on the primary key, one row more than the page tells whether there is a next one, no count
+        List<OrderResponseDto> rows = orderRepository.findProjected(spec, Sort.by("orderNo"), pageSize + 1,
+                OrderResponseDto.class, LISTING_COLUMNS);
+        boolean hasNext = rows.size() > pageSize;
+        List<OrderResponseDto> content = hasNext ? rows.subList(0, pageSize) : rows;
+
+        return CursorPageDto.<OrderResponseDto>builder()
+                .content(content)
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorToken.encode(CURSOR_LISTING, content.get(pageSize - 1).getOrderNo()) : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportOrders(OrderSearchDto orderSearchDto, OutputStream out) {
+        NdjsonWriter writer = new NdjsonWriter(out, jsonMapper);
+        exportRepository.streamOrders(orderSearchDto, writer::write);
+        return writer.finish();
+    }
+
+    @Override
+    public String getOrderETag(OrderResponseDto order) {
+        String content = order.getItemId() + "|" + order.getQty() + "|" + order.getPrice().toPlainString();
+        return DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
     }
 
     @Override
@@ -63,52 +135,150 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional
     public ResponseMessage<OrderResponseDto> createOrder(OrderRequestDto request) {
+        try {
+            ResponseMessage<OrderResponseDto> resp = placeOrder(request);
+            inventoryMetrics.orderCreated();
+            return resp;
+        } catch (ErrorBusinessException ex) {
+            inventoryMetrics.orderFailed(ex.getErrorNumber());
+            throw ex;
+        }
+    }
 
-        validateOrderRequest(request);
-
-        if (orderRepository.existsById(request.getOrderNo())) {
-            throw new ErrorBusinessException("Order number already exists", "ORD-002");
+    @Override
+    @Transactional
+    public ResponseMessage<OrderBulkLineDto> createOrders(List<OrderRequestDto> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new ErrorBusinessException("Request body cannot be empty", "ORD-VAL-000");
         }
 
-        ItemEntity item = itemRepository.findById(String.valueOf(request.getItemId()))
-                .orElseThrow(() -> new ErrorBusinessException("Item not found", "ORD-ITEM-404"));
+        OrderBulkLineDto[] lines = new OrderBulkLineDto[requests.size()];
+        List<Integer> pending = new ArrayList<>();
+        Set<String> orderNos = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            OrderRequestDto request = requests.get(i);
+            try {
+                validateOrderRequest(request);
+            } catch (ErrorBusinessException ex) {
+                lines[i] = rejectedLine(i, request, ex.getErrorNumber(), ex.getMessage());
+                continue;
+            }
+            if (!orderNos.add(request.getOrderNo().trim())) {
+                lines[i] = rejectedLine(i, request, "ORD-002", "Order number already exists");
+                continue;
+            }
+            pending.add(i);
+        }
 
-        long remaining = stockService.getRemainingStock(request.getItemId());
-        if (remaining < request.getQty()) {
-            throw new ErrorBusinessException("Insufficient stock", "ORD-001");
+        // one IN query each for existing order numbers and referenced items
+        Set<String> existingOrderNos = orderNos.isEmpty()
+                ? Collections.emptySet()
+                : new HashSet<>(orderRepository.findExistingOrderNos(orderNos));
+        Set<Integer> itemIds = pending.stream()
+                .map(i -> requests.get(i).getItemId())
+                .collect(Collectors.toSet());
+        Map<Integer, ItemEntity> items = itemIds.isEmpty()
+                ? Collections.emptyMap()
+                : itemRepository.findByIdIn(itemIds).stream()
+                        .collect(Collectors.toMap(ItemEntity::getId, Function.identity()));
+
+        // sorted by item id so concurrent bulk imports lock balances in the same order
+        Map<Integer, Long> requestedQty = new TreeMap<>();
+        for (Integer i : pending) {
+            OrderRequestDto request = requests.get(i);
+            if (existingOrderNos.contains(request.getOrderNo().trim())) {
+                lines[i] = rejectedLine(i, request, "ORD-002", "Order number already exists");
+            } else if (!items.containsKey(request.getItemId())) {
+                lines[i] = rejectedLine(i, request, "ORD-ITEM-404", "Item not found");
+            } else {
+                requestedQty.merge(request.getItemId(), request.getQty(), Long::sum);
+            }
         }
 
-        OrderEntity orderEntity = OrderEntity.builder()
-                .orderNo(request.getOrderNo().trim())
-                .item(item)
-                .qty(request.getQty())
-                .price(item.getPrice())
-                .build();
+        Set<Integer> insufficient = new HashSet<>();
+        requestedQty.forEach((itemId, qty) -> {
+            if (!stockService.reserveStock(itemId, qty)) {
+                insufficient.add(itemId);
+            }
+        });
+
+        List<OrderEntity> orders = new ArrayList<>();
+        for (Integer i : pending) {
+            if (lines[i] != null) {
+                continue;
+            }
+            OrderRequestDto request = requests.get(i);
+            if (insufficient.contains(request.getItemId())) {
+                lines[i] = rejectedLine(i, request, "ORD-001", "Insufficient stock");
+                continue;
+            }
+            ItemEntity item = items.get(request.getItemId());
+            OrderEntity orderEntity = OrderEntity.builder()
+                    .orderNo(request.getOrderNo().trim())
+                    .item(item)
+                    .qty(request.getQty())
+                    .price(item.getPrice())
+                    .build();
+            orders.add(orderEntity);
+            lines[i] = OrderBulkLineDto.builder()
+                    .line(i)
+                    .orderNo(orderEntity.getOrderNo())
+                    .itemId(item.getId())
+                    .qty(orderEntity.getQty())
+                    .price(orderEntity.getPrice())
+                    .isError(false)
+                    .message("Order created successfully")
+                    .build();
+        }
 
-        orderEntity = orderRepository.save(orderEntity);
+        if (!orders.isEmpty()) {
+            orderRepository.persistAll(orders);
+        }
 
-        return buildResponse(Collections.singletonList(toDto(orderEntity)), false, null, "Order created successfully");
+        return buildResponse(List.of(lines), false, null,
+                String.format("Bulk order processed: %d created, %d rejected",
+                        orders.size(), requests.size() - orders.size()));
     }
 
     @Override
+    @Transactional
     public ResponseMessage<OrderResponseDto> updateOrder(OrderRequestDto request) {
         validateOrderRequest(request);
 
-        OrderEntity entity = orderRepository.findById(request.getOrderNo())
+        OrderEntity entity = orderRepository.findByIdForUpdate(request.getOrderNo())
                 .orElseThrow(() -> new ErrorBusinessException("Order no not found", "ORD-404"));
 
-        ItemEntity item = itemRepository.findById(String.valueOf(request.getItemId()))
-                .orElseThrow(() -> new ErrorBusinessException("Item not found", "ORD-ITEM-404"));
+        PricedItem item = findItem(request.getItemId());
+
+        Integer oldItemId = entity.getItem().getId();
+        if (oldItemId.equals(item.id())) {
+            long delta = request.getQty() - entity.getQty();
+            if (delta > 0) {
+                reserveStock(item.id(), delta);
+            } else if (delta < 0) {
+                stockService.adjustStock(item.id(), -delta);
+            }
+        } else if (oldItemId < item.id()) {
+            // touch balances in item id order so two crossing updates cannot deadlock
+            stockService.adjustStock(oldItemId, entity.getQty());
+            reserveStock(item.id(), request.getQty());
+        } else {
+            reserveStock(item.id(), request.getQty());
+            stockService.adjustStock(oldItemId, entity.getQty());
+        }
 
-        long remaining = stockService.getRemainingStock(request.getItemId());
-        if (remaining + entity.getQty() < request.getQty()) {
-            throw new ErrorBusinessException("Insufficient stock", "ORD-001");
+        // the order row keeps its ledger_seq, so checkpoints that already counted it are stale
+        stockService.invalidateCheckpoint(oldItemId);
+        if (!oldItemId.equals(item.id())) {
+            stockService.invalidateCheckpoint(item.id());
         }
 
-        entity.setItem(item);
+        entity.setItem(item.reference());
         entity.setQty(request.getQty());
-        entity.setPrice(item.getPrice());
+        entity.setPrice(item.price());
 
         entity = orderRepository.save(entity);
 
@@ -117,11 +287,14 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional
     public ResponseMessage<Object> deleteOrder(String orderNo) {
 
-        OrderEntity orderEntity = orderRepository.findById(orderNo)
+        OrderEntity orderEntity = orderRepository.findByIdForUpdate(orderNo)
                 .orElseThrow(() -> new ErrorBusinessException("Order not found", "ORD-404"));
 
+        stockService.adjustStock(orderEntity.getItem().getId(), orderEntity.getQty());
+        stockService.invalidateCheckpoint(orderEntity.getItem().getId());
         orderRepository.delete(orderEntity);
 
         return buildResponse(Collections.emptyList(), false, null, "Order delete successfully");
@@ -129,6 +302,67 @@ public class OrderServiceImpl implements OrderService {
 
     // ============ HELPER ============
 
+    // createOrder without the outcome metrics
+    private ResponseMessage<OrderResponseDto> placeOrder(OrderRequestDto request) {
+        validateOrderRequest(request);
+
+        PricedItem item = findItem(request.getItemId());
+
+        reserveStock(item.id(), request.getQty());
+
+        OrderEntity orderEntity = OrderEntity.builder()
+                .orderNo(request.getOrderNo().trim())
+                .item(item.reference())
+                .qty(request.getQty())
+                .price(item.price())
+                .build();
+
+        try {
+            orderEntity = orderRepository.persistAndFlush(orderEntity);
+        } catch (DuplicateKeyException ex) {
+            // rolls back the reservation together with the insert
+            throw new ErrorBusinessException("Order number already exists", "ORD-002");
+        }
+
+        return buildResponse(Collections.singletonList(toDto(orderEntity)), false, null, "Order created successfully");
+    }
+
+    // only the filters that are set become predicates, see InventoryServiceImpl
+    private Specification<OrderEntity> buildSpecification(OrderSearchDto orderSearchDto) {
+        Specification<OrderEntity> spec = (root, query, cb) -> cb.conjunction();
+
+        if (StringUtils.hasText(orderSearchDto.getOrderNo())) {
+            spec = spec.and((root, query, cb) ->
+                    cb.equal(root.get("orderNo"), orderSearchDto.getOrderNo()));
+        }
+
+        if (orderSearchDto.getItemId() != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.equal(root.get("item").get("id"), orderSearchDto.getItemId()));
+        }
+
+        return spec;
+    }
+
+    // a cached price means the item exists: the FK gets a JPA reference and the item SELECT is skipped
+    private PricedItem findItem(Integer itemId) {
+        Optional<BigDecimal> cached = itemCache.getPrice(itemId);
+        if (cached.isPresent()) {
+            return new PricedItem(itemId, itemRepository.getReferenceById(String.valueOf(itemId)), cached.get());
+        }
+        long stamp = itemCache.generation();
+        ItemEntity item = itemRepository.findById(String.valueOf(itemId))
+                .orElseThrow(() -> new ErrorBusinessException("Item not found", "ORD-ITEM-404"));
+        itemCache.put(item.getId(), item.getPrice(), stamp);
+        return new PricedItem(item.getId(), item, item.getPrice());
+    }
+
+    private void reserveStock(Integer itemId, long qty) {
+        if (!stockService.reserveStock(itemId, qty)) {
+            throw new ErrorBusinessException("Insufficient stock", "ORD-001");
+        }
+    }
+
     private OrderResponseDto toDto(OrderEntity entity) {
         return OrderResponseDto.builder()
                 .orderNo(entity.getOrderNo())
@@ -138,6 +372,18 @@ public class OrderServiceImpl implements OrderService {
                 .build();
     }
 
+    private OrderBulkLineDto rejectedLine(int line, OrderRequestDto request, String errorNumber, String message) {
+        return OrderBulkLineDto.builder()
+                .line(line)
+                .orderNo(request != null ? request.getOrderNo() : null)
+                .itemId(request != null ? request.getItemId() : null)
+                .qty(request != null ? request.getQty() : null)
+                .isError(true)
+                .errorNumber(errorNumber)
+                .message(message)
+                .build();
+    }
+
     private <T> ResponseMessage<T> buildResponse(List<T> data,
                                                  boolean isError,
                                                  String errorNumber,
@@ -166,4 +412,6 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    private record PricedItem(Integer id, ItemEntity reference, BigDecimal price) {
+    }
 }
@@ -0,0 +1,196 @@
+package com.obs.inventory.service.impl;
+
+import com.obs.inventory.cache.StockCache;
+import com.obs.inventory.dto.StockCheckpointResultDto;
+import com.obs.inventory.dto.response.ResponseMessage;
+import com.obs.inventory.exception.ErrorBusinessException;
+import com.obs.inventory.repository.ItemRepository;
+import com.obs.inventory.repository.StockBalanceRepository;
+import com.obs.inventory.repository.StockCheckpointRepository;
+import com.obs.inventory.service.StockCheckpointService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockCheckpointServiceImpl implements StockCheckpointService {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+
+    private final ItemRepository itemRepository;
+
+    private final StockBalanceRepository stockBalanceRepository;
+
+    private final StockCheckpointRepository stockCheckpointRepository;
+
+    private final StockCache stockCache;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // see StockCheckpointConfig
+    private final ExecutorService checkpointExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${inventory.checkpoint.enabled:true}")
+    private boolean enabled;
+
+    // items per transaction: their writers wait for the chunk, keep it small
+    @Value("${inventory.checkpoint.chunk-size:100}")
+    private int chunkSize;
+
+    @Scheduled(fixedDelayString = "${inventory.checkpoint.interval:PT1H}",
+            initialDelayString = "${inventory.checkpoint.interval:PT1H}")
+    public void scheduledCheckpoint() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            createCheckpoints();
+        } catch (ErrorBusinessException ex) {
+            log.warn("Stock checkpoint skipped [{}] : {}", ex.getErrorNumber(), ex.getMessage());
+        }
+    }
+
+    @Override
+    public ResponseMessage<StockCheckpointResultDto> createCheckpoints() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ErrorBusinessException("Stock checkpoint is already running", "STK-001");
+        }
+        try {
+            return buildResponse(Collections.singletonList(runCheckpoints()), false, null,
+                    "Stock checkpoint created successfully");
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // ============ HELPER ============
+
+    private StockCheckpointResultDto runCheckpoints() {
+        long start = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+
+        Integer minId = itemRepository.findMinId();
+        Integer maxId = itemRepository.findMaxId();
+        if (minId == null || maxId == null) {
+            return buildResult(startedAt, 0, 0L, 0L, start);
+        }
+
+        List<int[]> ranges = new ArrayList<>();
+        for (long from = minId; from <= maxId; from += chunkSize) {
+            ranges.add(new int[]{(int) from, (int) Math.min(from + chunkSize - 1, maxId)});
+        }
+
+        // one transaction per chunk, so a long run never holds locks on the whole table
+        List<Future<ChunkResult>> futures = new ArrayList<>(ranges.size());
+        try {
+            for (int[] range : ranges) {
+                futures.add(checkpointExecutor.submit(() -> transactionTemplate.execute(status ->
+                        rollForward(range[0], range[1]))));
+            }
+
+            long items = 0;
+            long repaired = 0;
+            for (Future<ChunkResult> future : futures) {
+                ChunkResult chunk = future.get();
+                if (chunk == null) {
+                    continue;
+                }
+                items += chunk.checkpointed();
+                repaired += chunk.repaired().size();
+                // committed, a later write of the item carries a higher version and still wins
+                chunk.repaired().forEach(balance ->
+                        stockCache.put(balance.itemId(), balance.onHand(), balance.version()));
+            }
+
+            log.debug("Stock checkpoint started at {} : {} items in {} chunks, {} balances repaired",
+                    startedAt, items, ranges.size(), repaired);
+            return buildResult(startedAt, ranges.size(), items, repaired, start);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ErrorBusinessException("Stock checkpoint interrupted", "STK-002");
+        } catch (ExecutionException ex) {
+            log.error("Stock checkpoint failed", ex.getCause());
+            throw new ErrorBusinessException("Stock checkpoint failed", "STK-003");
+        } finally {
+            // chunks not started yet are dropped, the pool itself stays for the next run
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Locks the balance rows of the chunk, then reads the high-water mark. Writers hold that lock from
+     * their stock update until commit and insert their ledger rows in between, so none of these items
+     * has an uncommitted row below the mark, and every later row is numbered above it.
+     * While the locks are held the new checkpoint is the whole ledger of the item, so a balance row that
+     * differs from it has drifted and is set back to it.
+     * Items without a balance row yet are skipped, they get one from the ledger on first touch.
+     */
+    private ChunkResult rollForward(int fromId, int toId) {
+        List<Integer> itemIds = stockBalanceRepository.lockBalances(fromId, toId);
+        if (itemIds.isEmpty()) {
+            return new ChunkResult(0, List.of());
+        }
+        long highWater = stockCheckpointRepository.nextLedgerSeq();
+        int checkpointed = stockCheckpointRepository.rollForward(itemIds, highWater, LocalDateTime.now());
+
+        List<RepairedBalance> repaired = new ArrayList<>();
+        for (Object[] row : stockBalanceRepository.findDrift(itemIds)) {
+            Integer itemId = ((Number) row[0]).intValue();
+            long ledger = ((Number) row[1]).longValue();
+            log.warn("Stock balance of item {} was {}, ledger says {} : repaired", itemId, row[2], ledger);
+
+            stockBalanceRepository.setOnHand(itemId, ledger);
+            StockBalanceRepository.BalanceView view = stockBalanceRepository.findBalanceByItemId(itemId);
+            repaired.add(new RepairedBalance(itemId, view.getOnHand(), view.getVersion()));
+        }
+        return new ChunkResult(checkpointed, repaired);
+    }
+
+    private StockCheckpointResultDto buildResult(LocalDateTime startedAt, int chunks, long items, long repaired,
+                                                 long start) {
+        return StockCheckpointResultDto.builder()
+                .cutoff(startedAt.format(FORMATTER))
+                .chunks(chunks)
+                .itemsCheckpointed(items)
+                .balancesRepaired(repaired)
+                .durationMs(Duration.ofNanos(System.nanoTime() - start).toMillis())
+                .build();
+    }
+
+    private <T> ResponseMessage<T> buildResponse(List<T> data,
+                                                 boolean isError,
+                                                 String errorNumber,
+                                                 String message) {
+        ResponseMessage<T> resp = new ResponseMessage<>();
+        resp.setIsError(isError);
+        resp.setErrorNumber(errorNumber);
+        resp.setMessage(message);
+        resp.setTrxDateResponse(LocalDateTime.now().format(FORMATTER));
+        resp.setData(data);
+        return resp;
+    }
+
+    private record ChunkResult(int checkpointed, List<RepairedBalance> repaired) {
+    }
+
+    private record RepairedBalance(Integer itemId, long onHand, long version) {
+    }
+}
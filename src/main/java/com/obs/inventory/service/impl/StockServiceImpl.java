@@ -1,24 +1,324 @@
 package com.obs.inventory.service.impl;
 
+import com.obs.inventory.cache.StockCache;
+import com.obs.inventory.dto.StockCacheStatsDto;
+import com.obs.inventory.dto.response.ResponseMessage;
+import com.obs.inventory.entity.StockBalanceEntity;
+import com.obs.inventory.metrics.InventoryMetrics;
 import com.obs.inventory.repository.InventoryRepository;
 import com.obs.inventory.repository.OrderRepository;
+import com.obs.inventory.repository.StockBalanceRepository;
+import com.obs.inventory.repository.StockCheckpointRepository;
 import com.obs.inventory.service.StockService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class StockServiceImpl implements StockService {
 
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+
     private final InventoryRepository inventoryRepository;
 
     private final OrderRepository orderRepository;
 
+    private final StockBalanceRepository stockBalanceRepository;
+
+    private final StockCheckpointRepository stockCheckpointRepository;
+
+    private final StockCache stockCache;
+
+    private final InventoryMetrics inventoryMetrics;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // no @Transactional: a cache hit is answered without checking out a connection, only a miss opens one
     @Override
     public long getRemainingStock(Integer itemId) {
-        long topUp = inventoryRepository.sumQtyByItemIdAndType(itemId, "T");
-        long withdraw = inventoryRepository.sumQtyByItemIdAndType(itemId, "W");
-        long order = orderRepository.sumOrderedQtyByItemId(itemId);
+        long start = System.nanoTime();
+        OptionalLong cached = stockCache.get(itemId);
+        if (cached.isPresent()) {
+            inventoryMetrics.recordStockLookup(true, System.nanoTime() - start);
+            return cached.getAsLong();
+        }
+
+        Long onHand = transactionTemplate.execute(status -> loadBalance(itemId));
+        inventoryMetrics.recordStockLookup(false, System.nanoTime() - start);
+        return onHand;
+    }
+
+    @Override
+    public Map<Integer, Long> getRemainingStock(Collection<Integer> itemIds) {
+        if (itemIds == null || itemIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        long start = System.nanoTime();
+        try {
+            Map<Integer, Long> result = new HashMap<>();
+            // request order kept, duplicates dropped in constant time
+            Set<Integer> uncached = new LinkedHashSet<>();
+            for (Integer itemId : itemIds) {
+                OptionalLong cached = stockCache.get(itemId);
+                if (cached.isPresent()) {
+                    result.put(itemId, cached.getAsLong());
+                } else {
+                    uncached.add(itemId);
+                }
+            }
+            if (!uncached.isEmpty()) {
+                List<Integer> misses = new ArrayList<>(uncached);
+                result.putAll(transactionTemplate.execute(status -> remainingStockOf(misses)));
+            }
+            return result;
+        } finally {
+            inventoryMetrics.recordStockBulkLookup(System.nanoTime() - start);
+        }
+    }
+
+    // every ETag poll lands here: like getRemainingStock, only a miss opens a transaction
+    @Override
+    public long getStockVersion(Integer itemId) {
+        OptionalLong cached = stockCache.getVersion(itemId);
+        if (cached.isPresent()) {
+            return cached.getAsLong();
+        }
+
+        return transactionTemplate.execute(status -> {
+            StockBalanceRepository.BalanceView view = stockBalanceRepository.findBalanceByItemId(itemId);
+            return view != null ? view.getVersion() : -1L;
+        });
+    }
+
+    @Override
+    @Transactional
+    public boolean reserveStock(Integer itemId, long qty) {
+        // a committed balance already below qty cannot satisfy the order, no need to lock the row
+        OptionalLong cached = stockCache.get(itemId);
+        if (cached.isPresent() && cached.getAsLong() < qty) {
+            return false;
+        }
+
+        if (stockBalanceRepository.reserve(itemId, qty) == 1) {
+            publishBalance(itemId);
+            return true;
+        }
+        if (stockBalanceRepository.existsById(itemId)) {
+            return false;
+        }
+        initBalance(itemId, 0L);
+        if (stockBalanceRepository.reserve(itemId, qty) == 1) {
+            publishBalance(itemId);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    @Transactional
+    public void adjustStock(Integer itemId, long delta) {
+        // atomic increment, the row stays locked until the surrounding transaction commits
+        if (stockBalanceRepository.addOnHand(itemId, delta) == 0) {
+            Optional<StockBalanceEntity> created = initBalance(itemId, delta);
+            if (created.isPresent()) {
+                cacheAfterCommit(created.get());
+                return;
+            }
+            // a concurrent first touch created the row while we waited for the item lock
+            stockBalanceRepository.addOnHand(itemId, delta);
+        }
+        publishBalance(itemId);
+    }
+
+    @Override
+    @Transactional
+    public void invalidateCheckpoint(Integer itemId) {
+        // the balance row lock orders this against a roll-forward of the item, which takes it as well
+        stockBalanceRepository.lockBalances(itemId, itemId);
+        stockCheckpointRepository.deleteByItemId(itemId);
+    }
+
+    @Override
+    public ResponseMessage<StockCacheStatsDto> getCacheStats() {
+        return buildResponse(Collections.singletonList(stockCache.stats()), false, null,
+                "Success get stock cache stats");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseMessage<StockCacheStatsDto> rebuildCache() {
+        warmUpCache();
+        return buildResponse(Collections.singletonList(stockCache.stats()), false, null,
+                "Stock cache rebuilt successfully");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpCache() {
+        // replaces the map: items whose balance row is gone drop out
+        stockCache.rebuild(() -> {
+            List<StockBalanceEntity> balances = stockBalanceRepository.findAll();
+            balances.forEach(balance -> stockCache.put(balance.getItemId(), balance.getOnHand(), versionOf(balance)));
+            log.debug("Stock cache loaded with {} balances", balances.size());
+        });
+    }
+
+    // ============ HELPER ============
+
+    private long loadBalance(Integer itemId) {
+        StockBalanceEntity balance = stockBalanceRepository.findById(itemId)
+                .or(() -> initBalance(itemId, 0L))
+                .orElseGet(() -> stockBalanceRepository.findById(itemId).orElseThrow());
+        cacheAfterCommit(balance);
+        return balance.getOnHand();
+    }
+
+    // items missing from the cache: one query for the balance rows, then the ledger for items without a row
+    private Map<Integer, Long> remainingStockOf(List<Integer> uncached) {
+        Map<Integer, Long> result = new HashMap<>();
+        for (StockBalanceEntity balance : stockBalanceRepository.findAllById(uncached)) {
+            result.put(balance.getItemId(), balance.getOnHand());
+            cacheAfterCommit(balance);
+        }
+
+        List<Integer> missing = uncached.stream()
+                .filter(itemId -> !result.containsKey(itemId))
+                .toList();
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        stockBalanceRepository.lockItems(missing);
+        List<Integer> createdMeanwhile = stockBalanceRepository.findExistingItemIds(missing);
+        if (!createdMeanwhile.isEmpty()) {
+            for (StockBalanceEntity balance : stockBalanceRepository.findAllById(createdMeanwhile)) {
+                result.put(balance.getItemId(), balance.getOnHand());
+                cacheAfterCommit(balance);
+            }
+            missing = missing.stream()
+                    .filter(itemId -> !result.containsKey(itemId))
+                    .toList();
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<Integer, Long> fromLedger = calculateFromLedger(missing);
+        List<StockBalanceEntity> balances = new ArrayList<>(missing.size());
+        for (Integer itemId : missing) {
+            long onHand = fromLedger.getOrDefault(itemId, 0L);
+            result.put(itemId, onHand);
+            balances.add(StockBalanceEntity.builder()
+                    .itemId(itemId)
+                    .onHand(onHand)
+                    .build());
+        }
+        stockBalanceRepository.saveAll(balances).forEach(this::cacheAfterCommit);
+
+        return result;
+    }
+
+    /**
+     * First touch of an item: build its balance row from the ledger.
+     * Items created before stock_balances existed are backfilled here. The item row is locked first,
+     * so of two transactions touching a new item at once the second waits and then finds the row the
+     * first committed (empty result) instead of failing on the primary key.
+     */
+    private Optional<StockBalanceEntity> initBalance(Integer itemId, long delta) {
+        stockBalanceRepository.lockItems(List.of(itemId));
+        if (stockBalanceRepository.existsById(itemId)) {
+            return Optional.empty();
+        }
+        StockBalanceEntity balance = StockBalanceEntity.builder()
+                .itemId(itemId)
+                .onHand(calculateFromLedger(itemId) + delta)
+                .build();
+        return Optional.of(stockBalanceRepository.save(balance));
+    }
+
+    // full history: an item without a balance row has no checkpoint either (see StockCheckpointServiceImpl)
+    private long calculateFromLedger(Integer itemId) {
+        return net(inventoryRepository.sumStockByItemId(itemId));
+    }
+
+    private long net(InventoryRepository.StockSummary summary) {
+        long topUp = summary.getTopUp().longValue();
+        long withdraw = summary.getWithdraw().longValue();
+        long order = summary.getOrdered().longValue();
         return topUp - withdraw - order;
     }
-}
\ No newline at end of file
+
+    // one grouped query per source table, whatever the number of items
+    private Map<Integer, Long> calculateFromLedger(List<Integer> itemIds) {
+        Map<Integer, Long> result = new HashMap<>();
+        for (Object[] row : inventoryRepository.sumNetQtyByItemIds(itemIds)) {
+            result.merge((Integer) row[0], ((Number) row[1]).longValue(), Long::sum);
+        }
+        for (Object[] row : orderRepository.sumOrderedQtyByItemIds(itemIds)) {
+            result.merge((Integer) row[0], -((Number) row[1]).longValue(), Long::sum);
+        }
+        return result;
+    }
+
+    // the row is locked by our update, so this read is exactly what will be committed
+    private void publishBalance(Integer itemId) {
+        StockBalanceRepository.BalanceView view = stockBalanceRepository.findBalanceByItemId(itemId);
+        if (view != null) {
+            cacheAfterCommit(itemId, view.getOnHand(), view.getVersion());
+        }
+    }
+
+    private void cacheAfterCommit(StockBalanceEntity balance) {
+        cacheAfterCommit(balance.getItemId(), balance.getOnHand(), versionOf(balance));
+    }
+
+    private void cacheAfterCommit(Integer itemId, long onHand, long version) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stockCache.put(itemId, onHand, version);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stockCache.put(itemId, onHand, version);
+            }
+        });
+    }
+
+    private long versionOf(StockBalanceEntity balance) {
+        return balance.getVersion() != null ? balance.getVersion() : 0L;
+    }
+
+    private <T> ResponseMessage<T> buildResponse(List<T> data,
+                                                 boolean isError,
+                                                 String errorNumber,
+                                                 String message) {
+        ResponseMessage<T> resp = new ResponseMessage<>();
+        resp.setIsError(isError);
+        resp.setErrorNumber(errorNumber);
+        resp.setMessage(message);
+        resp.setTrxDateResponse(LocalDateTime.now().format(FORMATTER));
+        resp.setData(data);
+        return resp;
+    }
+}
@@ -0,0 +1,50 @@
+-- Schema as previously generated by ddl-auto=update, plus the tables and columns added since.
+-- Databases created before migrations were introduced are baselined below this version
+-- (spring.flyway.baseline-version=0) and run it, so every statement must also apply to the old schema.
+
+create table if not exists items (
+    id    integer        not null,
+    name  varchar(255)   not null,
+    price numeric(38, 2) not null,
+    constraint pk_items primary key (id)
+);
+
+create table if not exists inventories (
+    id         integer      not null,
+    item_id    integer      not null,
+    qty        bigint       not null,
+    type       varchar(1)   not null,
+    created_at timestamp(6),
+    constraint pk_inventories primary key (id),
+    constraint fk_inventories_item foreign key (item_id) references items (id)
+);
+
+alter table inventories add column if not exists created_at timestamp(6);
+
+create sequence if not exists inventories_seq start with 1 increment by 50;
+
+create table if not exists orders (
+    order_no   varchar(255)   not null,
+    item_id    integer        not null,
+    qty        bigint         not null,
+    price      numeric(38, 2) not null,
+    created_at timestamp(6),
+    constraint pk_orders primary key (order_no),
+    constraint fk_orders_item foreign key (item_id) references items (id)
+);
+
+alter table orders add column if not exists created_at timestamp(6);
+
+create table if not exists stock_balances (
+    item_id integer not null,
+    on_hand bigint  not null,
+    version bigint  not null,
+    constraint pk_stock_balances primary key (item_id)
+);
+
+create table if not exists stock_checkpoints (
+    item_id       integer      not null,
+    balance       bigint       not null,
+    checkpoint_at timestamp(6) not null,
+    constraint pk_stock_checkpoints primary key (item_id)
+);
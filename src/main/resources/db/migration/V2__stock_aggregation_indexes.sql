@@ -0,0 +1,6 @@
+-- Covering indexes for the per-item stock aggregates: sum(qty) by item (and type) is answered from the index alone,
+-- without visiting the table rows the foreign key index points to.
+
+create index if not exists idx_inventories_item_type_qty on inventories (item_id, type, qty);
+
+create index if not exists idx_orders_item_qty on orders (item_id, qty);
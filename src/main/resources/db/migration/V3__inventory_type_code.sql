@@ -0,0 +1,9 @@
+-- inventories.type holds the InventoryType storage code. Filters compare the column directly (no upper()),
+-- so normalize legacy rows and constrain the column to the known codes.
+
+update inventories set type = upper(trim(type)) where type <> upper(trim(type));
+
+alter table inventories add constraint ck_inventories_type check (type in ('T', 'W'));
+
+-- "all withdrawals for item X" on a large ledger
+create index if not exists idx_inventories_type_item on inventories (type, item_id);
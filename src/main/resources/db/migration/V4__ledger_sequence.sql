@@ -0,0 +1,24 @@
+-- Checkpoint high-water mark. Every ledger row takes a number from ledger_seq when it is inserted, and a writer
+-- inserts only after it locked the stock_balances row of the item, which it holds until commit. So for one item
+-- the numbers follow commit order, which created_at did not: a row stamped before a cutoff could commit after it
+-- (see StockCheckpointRepository.rollForward).
+
+create sequence if not exists ledger_seq start with 1;
+
+alter table inventories add column if not exists ledger_seq bigint;
+update inventories set ledger_seq = next value for ledger_seq where ledger_seq is null;
+alter table inventories alter column ledger_seq set default next value for ledger_seq;
+alter table inventories alter column ledger_seq set not null;
+
+alter table orders add column if not exists ledger_seq bigint;
+update orders set ledger_seq = next value for ledger_seq where ledger_seq is null;
+alter table orders alter column ledger_seq set default next value for ledger_seq;
+alter table orders alter column ledger_seq set not null;
+
+-- "movements of item X after its checkpoint"
+create index if not exists idx_inventories_item_seq on inventories (item_id, ledger_seq);
+create index if not exists idx_orders_item_seq on orders (item_id, ledger_seq);
+
+-- checkpoints taken by time cannot be converted, the next run rebuilds them from the full history
+delete from stock_checkpoints;
+alter table stock_checkpoints add column if not exists ledger_seq bigint default 0 not null;
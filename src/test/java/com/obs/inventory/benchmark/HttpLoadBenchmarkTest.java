@@ -0,0 +1,276 @@
+package com.obs.inventory.benchmark;
+
+import com.obs.inventory.InventoryApplication;
+import com.obs.inventory.config.InventoryIdSequenceInitializer;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test: boots the application on an ephemeral port with a seeded in-memory H2 and
+ * drives a weighted mix of item reads, paged listings, order creates and inventory creates from
+ * {@code clients} closed-loop HTTP clients. Reports throughput and HdrHistogram p50 / p95 / p99 / p99.9
+ * per endpoint, and writes the summary plus one {@code .hgrm} percentile file per endpoint to
+ * {@code target/load-test/<timestamp>} to compare releases. Skipped by default, run with:
+ * <pre>
+ * ./mvnw test -Dtest=HttpLoadBenchmarkTest -Dbenchmark=true [-Dbenchmark.clients=200] [-Dbenchmark.seconds=30]
+ *     [-Dbenchmark.warmup=10] [-Dbenchmark.items=10000]
+ *     [-Dbenchmark.mix=item=40,itemPage=15,orderPage=15,order=20,inventory=10]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HttpLoadBenchmarkTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final String DEFAULT_MIX = "item=40,itemPage=15,orderPage=15,order=20,inventory=10";
+
+    @Test
+    @DisplayName("benchmark - HTTP load mix, percentiles per endpoint")
+    void runMix() throws Exception {
+        int clients = Integer.getInteger("benchmark.clients", 200);
+        int items = Integer.getInteger("benchmark.items", 10_000);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("benchmark.warmup", 10));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 30));
+        Map<Endpoint, Integer> mix = parseMix(System.getProperty("benchmark.mix", DEFAULT_MIX));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InventoryApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-test;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "inventory.checkpoint.enabled=false",
+                        "logging.level.org.hibernate.SQL=INFO",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+                        "logging.level.com.obs.inventory=INFO")
+                .run()) {
+            seed(context, items);
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            LoadRun load = new LoadRun(URI.create("http://localhost:" + port + "/api/v1"), items, mix);
+            load.run(clients, warmup, duration);
+
+            String report = load.report(clients, duration);
+            System.out.println(report);
+            Path dir = load.write(report);
+            System.out.println("percentile distributions written to " + dir.toAbsolutePath());
+
+            assertThat(load.total()).isPositive();
+        }
+    }
+
+    // ============ HELPER ============
+
+    private void seed(ConfigurableApplicationContext context, int items) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into items (id, name, price) " +
+                "select x, 'Item ' || x, 10 from system_range(1, ?)", items);
+        jdbcTemplate.update("insert into inventories (id, item_id, qty, type, created_at) " +
+                "select x, x, 1000000000, 'T', current_timestamp from system_range(1, ?)", items);
+        jdbcTemplate.update("insert into orders (order_no, item_id, qty, price, created_at) " +
+                "select 'SEED-' || x, mod(x, ?) + 1, 1, 10, current_timestamp from system_range(1, ?)",
+                items, items * 2);
+        // generated inventory ids must start after the seeded ones
+        context.getBean(InventoryIdSequenceInitializer.class).alignSequence();
+    }
+
+    private Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split("=");
+            weights.put(Endpoint.byKey(kv[0].trim()), Integer.parseInt(kv[1].trim()));
+        }
+        return weights;
+    }
+
+    private enum Endpoint {
+
+        ITEM("item", "GET  /items/{id}"),
+        ITEM_PAGE("itemPage", "GET  /items?page&size"),
+        ORDER_PAGE("orderPage", "GET  /orders?page&size"),
+        ORDER("order", "POST /orders/create"),
+        INVENTORY("inventory", "POST /inventories/create");
+
+        private final String key;
+
+        private final String label;
+
+        Endpoint(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+        static Endpoint byKey(String key) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.key.equals(key)) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalArgumentException("Unknown endpoint in benchmark.mix: " + key);
+        }
+
+        HttpRequest request(URI base, long n, int items) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int itemId = random.nextInt(items) + 1;
+            return switch (this) {
+                case ITEM -> get(base, "/items/" + itemId);
+                case ITEM_PAGE -> get(base, "/items?page=" + random.nextInt(Math.max(1, items / PAGE_SIZE))
+                        + "&size=" + PAGE_SIZE);
+                case ORDER_PAGE -> get(base, "/orders?page=" + random.nextInt(Math.max(1, 2 * items / PAGE_SIZE))
+                        + "&size=" + PAGE_SIZE);
+                case ORDER -> post(base, "/orders/create",
+                        "{\"orderNo\":\"LOAD-" + n + "\",\"itemId\":" + itemId + ",\"qty\":1}");
+                case INVENTORY -> post(base, "/inventories/create",
+                        "{\"itemId\":" + itemId + ",\"qty\":5,\"type\":\"T\"}");
+            };
+        }
+
+        private static HttpRequest get(URI base, String path) {
+            return HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(60)).GET().build();
+        }
+
+        private static HttpRequest post(URI base, String path, String json) {
+            return HttpRequest.newBuilder(URI.create(base + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        }
+    }
+
+    /**
+     * One async request chain per client: the next request is sent when the previous answer arrives.
+     * Latencies are recorded in microseconds, only for requests started after the warm-up.
+     */
+    private static final class LoadRun {
+
+        private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+
+        private final URI base;
+
+        private final int items;
+
+        private final Endpoint[] wheel;
+
+        private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+
+        private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+
+        private final AtomicLong sequence = new AtomicLong();
+
+        private CountDownLatch done;
+
+        private long measureFrom;
+
+        private long end;
+
+        LoadRun(URI base, int items, Map<Endpoint, Integer> mix) {
+            this.base = base;
+            this.items = items;
+            List<Endpoint> slots = new ArrayList<>();
+            mix.forEach((endpoint, weight) -> {
+                for (int i = 0; i < weight; i++) {
+                    slots.add(endpoint);
+                }
+                latencies.put(endpoint, new ConcurrentHistogram(3));
+                errors.put(endpoint, new LongAdder());
+            });
+            this.wheel = slots.toArray(Endpoint[]::new);
+        }
+
+        void run(int clients, Duration warmup, Duration duration) throws InterruptedException {
+            done = new CountDownLatch(clients);
+            measureFrom = System.nanoTime() + warmup.toNanos();
+            end = measureFrom + duration.toNanos();
+            for (int i = 0; i < clients; i++) {
+                fire();
+            }
+            done.await();
+        }
+
+        long total() {
+            return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+        }
+
+        String report(int clients, Duration duration) {
+            double seconds = duration.toNanos() / 1e9;
+            StringBuilder out = new StringBuilder();
+            out.append(String.format("%d clients, %d s measured%n", clients, duration.toSeconds()));
+            out.append(String.format("%-24s %9s %9s %9s %9s %9s %9s %8s%n",
+                    "endpoint", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "errors"));
+            latencies.forEach((endpoint, histogram) -> out.append(String.format(
+                    "%-24s %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8d%n",
+                    endpoint.label, histogram.getTotalCount() / seconds,
+                    ms(histogram, 50), ms(histogram, 95), ms(histogram, 99), ms(histogram, 99.9),
+                    histogram.getMaxValue() / 1_000.0, errors.get(endpoint).sum())));
+            out.append(String.format("%-24s %9.1f%n", "total", total() / seconds));
+            return out.toString();
+        }
+
+        Path write(String report) throws IOException {
+            Path dir = Path.of("target", "load-test",
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("summary.txt"), report);
+            for (Map.Entry<Endpoint, Histogram> entry : latencies.entrySet()) {
+                try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(entry.getKey().key + ".hgrm")))) {
+                    // values in microseconds, reported in milliseconds
+                    entry.getValue().outputPercentileDistribution(out, 1_000.0);
+                }
+            }
+            return dir;
+        }
+
+        private void fire() {
+            long start = System.nanoTime();
+            if (start >= end) {
+                done.countDown();
+                return;
+            }
+            Endpoint endpoint = wheel[ThreadLocalRandom.current().nextInt(wheel.length)];
+            HttpRequest request = endpoint.request(base, sequence.incrementAndGet(), items);
+
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (start >= measureFrom) {
+                    if (error == null && response.statusCode() == 200) {
+                        latencies.get(endpoint).recordValue((System.nanoTime() - start) / 1_000);
+                    } else {
+                        errors.get(endpoint).increment();
+                    }
+                }
+                fire();
+            });
+        }
+
+        private static double ms(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1_000.0;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.obs.inventory.benchmark;
+
+import com.obs.inventory.dto.InventoryIngestResultDto;
+import com.obs.inventory.service.InventoryService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rows/second of the streaming inventory ingest against an in-memory H2. Skipped by default, run with:
+ * <pre>
+ * ./mvnw test -Dtest=InventoryIngestBenchmarkTest -Dbenchmark=true [-Dbenchmark.ingestRows=100000]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ingest-bench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.com.obs.inventory=INFO"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InventoryIngestBenchmarkTest {
+
+    private static final int ITEMS = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @BeforeAll
+    void seedItems() {
+        jdbcTemplate.update("insert into items (id, name, price) " +
+                "select x, 'Item ' || x, 10 from system_range(1, ?)", ITEMS);
+    }
+
+    @Test
+    @DisplayName("benchmark - ingest CSV")
+    void ingestCsv() {
+        int rows = Integer.getInteger("benchmark.ingestRows", 100_000);
+
+        StringBuilder csv = new StringBuilder("id,itemId,qty,type\n");
+        for (int i = 1; i <= rows; i++) {
+            csv.append(i).append(',').append(i % ITEMS + 1).append(",5,").append(i % 4 == 0 ? 'W' : 'T').append('\n');
+        }
+
+        InventoryIngestResultDto result = inventoryService.ingestInventories(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), "text/csv").getData().get(0);
+
+        assertThat(result.getAccepted()).isEqualTo(rows);
+        System.out.printf("ingest %d rows in %d batches: %d ms, %d rows/s%n",
+                rows, result.getBatches(), result.getDurationMs(), result.getRowsPerSecond());
+    }
+}
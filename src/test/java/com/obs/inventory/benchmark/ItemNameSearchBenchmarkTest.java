@@ -0,0 +1,122 @@
+package com.obs.inventory.benchmark;
+
+import com.obs.inventory.cache.ItemNameIndex;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Catalog search latency, {@code lower(name) like '%term%'} on H2 against the in-memory name index,
+ * over the same generated catalog. Skipped by default, run with:
+ * <pre>
+ * ./mvnw test -Dtest=ItemNameSearchBenchmarkTest -Dbenchmark=true [-Dbenchmark.items=1000000]
+ * </pre>
+ * 1M items need about 1 GB of heap for H2 and the index together, e.g. -DargLine=-Xmx2g.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ItemNameSearchBenchmarkTest {
+
+    private static final String[] COLORS = {"Red", "Blue", "Green", "Black", "White", "Silver", "Golden", "Navy"};
+
+    private static final String[] NOUNS = {"Pen", "Pencil", "Notebook", "Stapler", "Marker", "Folder",
+            "Eraser", "Ruler", "Scissors", "Binder", "Envelope", "Calculator"};
+
+    private static final String[] TERMS = {"p", "no", "stap", "calculator 7", "navy scissors 71", "zzz"};
+
+    private static final int LIMIT = 20;
+
+    private static final int WARMUP = 20;
+
+    private static final int ITERATIONS = 100;
+
+    @Test
+    @DisplayName("benchmark - LIKE scan vs name index")
+    void compareLikeScanAndIndex() throws SQLException {
+        int items = Integer.getInteger("benchmark.items", 1_000_000);
+
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:search-bench;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        ItemNameIndex index = new ItemNameIndex();
+        try (Connection connection = dataSource.getConnection()) {
+            long loadStart = System.nanoTime();
+            seed(connection, index, items);
+            System.out.printf("catalog %d items, seeded + indexed in %d ms%n",
+                    items, (System.nanoTime() - loadStart) / 1_000_000);
+
+            try (PreparedStatement like = connection.prepareStatement(
+                    "select id from items where lower(name) like ? order by id limit " + LIMIT)) {
+                for (String term : TERMS) {
+                    double likeUs = time(() -> likeScan(like, term));
+                    double indexUs = time(() -> index.search(term, LIMIT));
+                    System.out.printf("  %-22s like %10.1f us/op   index %10.1f us/op   top %s%n",
+                            "'" + term + "'", likeUs, indexUs, index.search(term, 3));
+                }
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(items);
+        assertThat(index.search("navy scissors 71", LIMIT)).startsWith(71);
+    }
+
+    // ============ HELPER ============
+
+    private void seed(Connection connection, ItemNameIndex index, int items) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into items (id, name, price) values (?, ?, 10)")) {
+            for (int id = 1; id <= items; id++) {
+                String name = COLORS[id % COLORS.length] + " " + NOUNS[(id / COLORS.length) % NOUNS.length] + " " + id;
+                insert.setInt(1, id);
+                insert.setString(2, name);
+                insert.addBatch();
+                index.put(id, name);
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    private List<Integer> likeScan(PreparedStatement like, String term) {
+        List<Integer> ids = new ArrayList<>(LIMIT);
+        try {
+            like.setString(1, "%" + term + "%");
+            try (ResultSet rs = like.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return ids;
+    }
+
+    private double time(Runnable call) {
+        for (int i = 0; i < WARMUP; i++) {
+            call.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.run();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+}
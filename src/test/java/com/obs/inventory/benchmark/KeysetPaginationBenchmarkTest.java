@@ -0,0 +1,128 @@
+package com.obs.inventory.benchmark;
+
+import com.obs.inventory.dto.InventoryResponseDto;
+import com.obs.inventory.dto.OrderResponseDto;
+import com.obs.inventory.dto.response.CursorToken;
+import com.obs.inventory.dto.search.InventorySearchDto;
+import com.obs.inventory.dto.search.OrderSearchDto;
+import com.obs.inventory.service.InventoryService;
+import com.obs.inventory.service.OrderService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of page 10,000 with offset pagination (Page, count query) against the keyset endpoints,
+ * on an in-memory H2. Skipped by default, run with:
+ * <pre>
+ * ./mvnw test -Dtest=KeysetPaginationBenchmarkTest -Dbenchmark=true [-Dbenchmark.page=10000]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:keyset-bench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "inventory.checkpoint.enabled=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.com.obs.inventory=INFO"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class KeysetPaginationBenchmarkTest {
+
+    private static final int ITEMS = 100;
+
+    private static final int SIZE = 20;
+
+    private static final int WARMUP = 5;
+
+    private static final int ITERATIONS = 20;
+
+    private final int page = Integer.getInteger("benchmark.page", 10_000);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @BeforeAll
+    void seed() {
+        long rows = (long) (page + 10) * SIZE;
+
+        jdbcTemplate.update("insert into items (id, name, price) " +
+                "select x, 'Item ' || x, 10 from system_range(1, ?)", ITEMS);
+        jdbcTemplate.update("insert into inventories (id, item_id, qty, type) " +
+                "select x, mod(x, ?) + 1, 1, 'T' from system_range(1, ?)", ITEMS, rows);
+        // zero padded, so string order of order_no is numeric order
+        jdbcTemplate.update("insert into orders (order_no, item_id, qty, price) " +
+                "select 'O' || lpad(x, 9, '0'), mod(x, ?) + 1, 1, 10 from system_range(1, ?)", ITEMS, rows);
+    }
+
+    @Test
+    @DisplayName("benchmark - inventories, offset vs keyset")
+    void inventories() {
+        PageRequest pageable = PageRequest.of(page, SIZE, Sort.by("id"));
+        String cursor = CursorToken.encode("inventories", page * SIZE);
+
+        List<Integer> offsetIds = inventoryService.getInventoriesPage(new InventorySearchDto(), pageable)
+                .map(InventoryResponseDto::getId).getContent();
+        List<Integer> keysetIds = inventoryService.getInventoriesAfter(new InventorySearchDto(), cursor, SIZE)
+                .getContent().stream().map(InventoryResponseDto::getId).toList();
+        assertThat(keysetIds).isEqualTo(offsetIds);
+
+        report("inventories",
+                time(() -> inventoryService.getInventoriesPage(new InventorySearchDto(), pageable)),
+                time(() -> inventoryService.getInventoriesAfter(new InventorySearchDto(), cursor, SIZE)));
+    }
+
+    @Test
+    @DisplayName("benchmark - orders, offset vs keyset")
+    void orders() {
+        PageRequest pageable = PageRequest.of(page, SIZE, Sort.by("orderNo"));
+        String cursor = CursorToken.encode("orders", String.format("O%09d", page * SIZE));
+
+        List<String> offsetNos = orderService.getOrdersPages(new OrderSearchDto(), pageable)
+                .map(OrderResponseDto::getOrderNo).getContent();
+        List<String> keysetNos = orderService.getOrdersAfter(new OrderSearchDto(), cursor, SIZE)
+                .getContent().stream().map(OrderResponseDto::getOrderNo).toList();
+        assertThat(keysetNos).isEqualTo(offsetNos);
+
+        report("orders",
+                time(() -> orderService.getOrdersPages(new OrderSearchDto(), pageable)),
+                time(() -> orderService.getOrdersAfter(new OrderSearchDto(), cursor, SIZE)));
+    }
+
+    // ============ HELPER ============
+
+    private double time(Supplier<?> call) {
+        for (int i = 0; i < WARMUP; i++) {
+            call.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+
+    private void report(String listing, double offsetMs, double keysetMs) {
+        System.out.printf("%s page %d (size %d)%n", listing, page, SIZE);
+        System.out.printf("  offset + count : %8.2f ms/op%n", offsetMs);
+        System.out.printf("  keyset         : %8.2f ms/op%n", keysetMs);
+    }
+}
@@ -0,0 +1,147 @@
+package com.obs.inventory.benchmark;
+
+import com.obs.inventory.dto.InventoryResponseDto;
+import com.obs.inventory.dto.OrderResponseDto;
+import com.obs.inventory.dto.search.InventorySearchDto;
+import com.obs.inventory.dto.search.OrderSearchDto;
+import com.obs.inventory.entity.InventoryEntity;
+import com.obs.inventory.entity.OrderEntity;
+import com.obs.inventory.repository.InventoryRepository;
+import com.obs.inventory.repository.OrderRepository;
+import com.obs.inventory.service.InventoryService;
+import com.obs.inventory.service.OrderService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency and bytes allocated per page for the list reads, hydrating entities (the previous
+ * findAll(spec, pageable) + toDto path) against the constructor projections, on an in-memory H2.
+ * Allocation is read from the per-thread counter of the HotSpot ThreadMXBean, so it includes
+ * everything the call allocates (Hibernate, JDBC driver, mapping). Skipped by default, run with:
+ * <pre>
+ * ./mvnw test -Dtest=ListProjectionBenchmarkTest -Dbenchmark=true [-Dbenchmark.size=100]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:projection-bench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "inventory.checkpoint.enabled=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.com.obs.inventory=INFO"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListProjectionBenchmarkTest {
+
+    private static final int ITEMS = 100;
+
+    private static final int ROWS = 100_000;
+
+    private static final int WARMUP = 200;
+
+    private static final int ITERATIONS = 1_000;
+
+    private final int size = Integer.getInteger("benchmark.size", 100);
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("insert into items (id, name, price) " +
+                "select x, 'Item ' || x, 10 from system_range(1, ?)", ITEMS);
+        jdbcTemplate.update("insert into inventories (id, item_id, qty, type) " +
+                "select x, mod(x, ?) + 1, 1, 'T' from system_range(1, ?)", ITEMS, ROWS);
+        jdbcTemplate.update("insert into orders (order_no, item_id, qty, price) " +
+                "select 'O' || lpad(x, 9, '0'), mod(x, ?) + 1, 1, 10 from system_range(1, ?)", ITEMS, ROWS);
+    }
+
+    @Test
+    @DisplayName("benchmark - inventories, entity vs projection")
+    void inventories() {
+        PageRequest pageable = PageRequest.of(10, size, Sort.by("id"));
+        Specification<InventoryEntity> all = (root, query, cb) -> cb.conjunction();
+        Supplier<List<InventoryResponseDto>> entities = () -> inventoryRepository.findAll(all, pageable)
+                .map(entity -> new InventoryResponseDto(entity.getId(), entity.getItem().getId(),
+                        entity.getQty(), entity.getType().getCode()))
+                .getContent();
+        Supplier<List<InventoryResponseDto>> projection = () -> inventoryService
+                .getInventoriesPage(new InventorySearchDto(), pageable)
+                .getContent();
+
+        assertThat(projection.get()).isEqualTo(entities.get());
+
+        report("inventories", measure(entities), measure(projection));
+    }
+
+    @Test
+    @DisplayName("benchmark - orders, entity vs projection")
+    void orders() {
+        PageRequest pageable = PageRequest.of(10, size, Sort.by("orderNo"));
+        Specification<OrderEntity> all = (root, query, cb) -> cb.conjunction();
+        Supplier<List<OrderResponseDto>> entities = () -> orderRepository.findAll(all, pageable)
+                .map(entity -> new OrderResponseDto(entity.getOrderNo(), entity.getItem().getId(),
+                        entity.getQty(), entity.getPrice()))
+                .getContent();
+        Supplier<List<OrderResponseDto>> projection = () -> orderService
+                .getOrdersPages(new OrderSearchDto(), pageable)
+                .getContent();
+
+        assertThat(projection.get()).isEqualTo(entities.get());
+
+        report("orders", measure(entities), measure(projection));
+    }
+
+    // ============ HELPER ============
+
+    // [us/op, bytes/op]
+    private double[] measure(Supplier<?> call) {
+        for (int i = 0; i < WARMUP; i++) {
+            call.get();
+        }
+        long bytes = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.get();
+        }
+        long nanos = System.nanoTime() - start;
+        bytes = threads.getCurrentThreadAllocatedBytes() - bytes;
+        return new double[]{nanos / 1_000.0 / ITERATIONS, (double) bytes / ITERATIONS};
+    }
+
+    private void report(String listing, double[] entities, double[] projection) {
+        System.out.printf("%s page of %d rows%n", listing, size);
+        System.out.printf("  entities   : %8.1f us/op %12.0f B/op%n", entities[0], entities[1]);
+        System.out.printf("  projection : %8.1f us/op %12.0f B/op%n", projection[0], projection[1]);
+    }
+}
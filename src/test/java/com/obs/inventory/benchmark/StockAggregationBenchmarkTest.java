@@ -0,0 +1,112 @@
+package com.obs.inventory.benchmark;
+
+import com.obs.inventory.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of the legacy three-query stock aggregation against the single native query,
+ * on an in-memory H2 ledger. Skipped by default, run with:
+ * <pre>
+ * ./mvnw test -Dtest=StockAggregationBenchmarkTest -Dbenchmark=true [-Dbenchmark.ledgerRows=1000000]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock-bench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.com.obs.inventory=INFO"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StockAggregationBenchmarkTest {
+
+    private static final int ITEMS = 1_000;
+
+    private static final int WARMUP = 200;
+
+    private static final int ITERATIONS = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @BeforeAll
+    void seedLedger() {
+        long ledgerRows = Long.getLong("benchmark.ledgerRows", 1_000_000L);
+
+        jdbcTemplate.update("insert into items (id, name, price) " +
+                "select x, 'Item ' || x, 10 from system_range(1, ?)", ITEMS);
+        jdbcTemplate.update("insert into inventories (id, item_id, qty, type) " +
+                "select x, mod(x, ?) + 1, 1, case when mod(x, 3) = 0 then 'W' else 'T' end " +
+                "from system_range(1, ?)", ITEMS, ledgerRows);
+        jdbcTemplate.update("insert into orders (order_no, item_id, qty, price) " +
+                "select 'O' || x, mod(x, ?) + 1, 1, 10 from system_range(1, ?)", ITEMS, ledgerRows / 10);
+    }
+
+    @Test
+    @DisplayName("benchmark - 3 query terpisah vs 1 native query")
+    void compareStockAggregation() {
+        for (int i = 0; i < WARMUP; i++) {
+            legacy(randomItem());
+            singleQuery(randomItem());
+        }
+
+        long legacyNanos = 0;
+        long singleNanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            int itemId = randomItem();
+
+            long start = System.nanoTime();
+            long legacyStock = legacy(itemId);
+            legacyNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long singleStock = singleQuery(itemId);
+            singleNanos += System.nanoTime() - start;
+
+            assertThat(singleStock).isEqualTo(legacyStock);
+        }
+
+        System.out.printf("stock aggregation over %d items, %d iterations%n", ITEMS, ITERATIONS);
+        System.out.printf("  3 queries  : %8.1f us/op%n", legacyNanos / 1_000.0 / ITERATIONS);
+        System.out.printf("  1 query    : %8.1f us/op%n", singleNanos / 1_000.0 / ITERATIONS);
+    }
+
+    // ============ HELPER ============
+
+    // the three aggregates the service used to run, one round trip each
+    private long legacy(int itemId) {
+        long topUp = sumQty("select coalesce(sum(qty), 0) from inventories where item_id = ? and type = 'T'", itemId);
+        long withdraw = sumQty("select coalesce(sum(qty), 0) from inventories where item_id = ? and type = 'W'", itemId);
+        long order = sumQty("select coalesce(sum(qty), 0) from orders where item_id = ?", itemId);
+        return topUp - withdraw - order;
+    }
+
+    private long sumQty(String sql, int itemId) {
+        return jdbcTemplate.queryForObject(sql, Long.class, itemId);
+    }
+
+    private long singleQuery(int itemId) {
+        InventoryRepository.StockSummary summary = inventoryRepository.sumStockByItemId(itemId);
+        return summary.getTopUp().longValue()
+                - summary.getWithdraw().longValue()
+                - summary.getOrdered().longValue();
+    }
+
+    private int randomItem() {
+        return ThreadLocalRandom.current().nextInt(ITEMS) + 1;
+    }
+}
@@ -0,0 +1,143 @@
+package com.obs.inventory.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 plans and latency of the stock aggregates before (baseline schema, foreign key indexes only)
+ * and after the covering index migration, on the same ledger. Skipped by default, run with:
+ * <pre>
+ * ./mvnw test -Dtest=StockIndexBenchmarkTest -Dbenchmark=true [-Dbenchmark.ledgerRows=10000000]
+ * </pre>
+ * 10M rows need a few GB of heap, e.g. -DargLine=-Xmx6g.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StockIndexBenchmarkTest {
+
+    private static final int ITEMS = 1_000;
+
+    private static final int WARMUP = 50;
+
+    private static final int ITERATIONS = 200;
+
+    private static final Map<String, String> QUERIES = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("withdrawQtyByItem",
+                "select coalesce(sum(qty), 0) from inventories where item_id = ? and type = 'W'");
+        QUERIES.put("orderedQtyByItem",
+                "select coalesce(sum(qty), 0) from orders where item_id = ?");
+        QUERIES.put("sumStockByItemId",
+                "select coalesce(sum(case when i.type = 'T' then i.qty else 0 end), 0), " +
+                        "coalesce(sum(case when i.type = 'W' then i.qty else 0 end), 0), " +
+                        "(select coalesce(sum(o.qty), 0) from orders o where o.item_id = ?) " +
+                        "from inventories i where i.item_id = ?");
+    }
+
+    @Test
+    @DisplayName("benchmark - EXPLAIN dan latency sebelum / sesudah covering index")
+    void compareBeforeAndAfterIndexes() throws SQLException {
+        long ledgerRows = Long.getLong("benchmark.ledgerRows", 10_000_000L);
+
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:index-bench;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+
+        flyway(dataSource, "1").migrate();
+        try (Connection connection = dataSource.getConnection()) {
+            seed(connection, ledgerRows);
+
+            Map<String, Double> before = run(connection, "before (V1, foreign key indexes)");
+
+            flyway(dataSource, "latest").migrate();
+            Map<String, Double> after = run(connection, "after (covering indexes)");
+
+            System.out.printf("ledger rows %d, orders %d, items %d%n", ledgerRows, ledgerRows / 10, ITEMS);
+            QUERIES.keySet().forEach(name -> System.out.printf("  %-22s : %10.1f us/op -> %10.1f us/op%n",
+                    name, before.get(name), after.get(name)));
+
+            String plan = explain(connection, QUERIES.get("withdrawQtyByItem"));
+            assertThat(plan).containsIgnoringCase("IDX_INVENTORIES_ITEM_TYPE_QTY");
+        }
+    }
+
+    // ============ HELPER ============
+
+    private Flyway flyway(JdbcDataSource dataSource, String target) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .target(target)
+                .load();
+    }
+
+    private void seed(Connection connection, long ledgerRows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("insert into items (id, name, price) " +
+                    "select x, 'Item ' || x, 10 from system_range(1, " + ITEMS + ")");
+            statement.execute("insert into inventories (id, item_id, qty, type) " +
+                    "select x, mod(x, " + ITEMS + ") + 1, 1, case when mod(x, 3) = 0 then 'W' else 'T' end " +
+                    "from system_range(1, " + ledgerRows + ")");
+            statement.execute("insert into orders (order_no, item_id, qty, price) " +
+                    "select 'O' || x, mod(x, " + ITEMS + ") + 1, 1, 10 from system_range(1, " + ledgerRows / 10 + ")");
+            statement.execute("analyze");
+        }
+    }
+
+    private Map<String, Double> run(Connection connection, String label) throws SQLException {
+        System.out.println("==== " + label + " ====");
+        Map<String, Double> micros = new LinkedHashMap<>();
+        for (Map.Entry<String, String> query : QUERIES.entrySet()) {
+            System.out.println(query.getKey() + ":");
+            System.out.println(explain(connection, query.getValue()));
+
+            try (PreparedStatement statement = connection.prepareStatement(query.getValue())) {
+                for (int i = 0; i < WARMUP; i++) {
+                    execute(statement);
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    execute(statement);
+                }
+                micros.put(query.getKey(), (System.nanoTime() - start) / 1_000.0 / ITERATIONS);
+            }
+        }
+        return micros;
+    }
+
+    private String explain(Connection connection, String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("explain analyze " + sql.replace("?", "1"))) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private void execute(PreparedStatement statement) throws SQLException {
+        int itemId = ThreadLocalRandom.current().nextInt(ITEMS) + 1;
+        int parameters = statement.getParameterMetaData().getParameterCount();
+        for (int p = 1; p <= parameters; p++) {
+            statement.setInt(p, itemId);
+        }
+        try (ResultSet rs = statement.executeQuery()) {
+            rs.next();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.obs.inventory.benchmark;
+
+import com.obs.inventory.InventoryApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Closed-loop load on {@code POST /orders/create} (item lookup, stock reserve and insert, all blocking
+ * JDBC on H2): the app on Tomcat's platform-thread pool, then with {@code spring.threads.virtual.enabled}.
+ * Both runs use the same Hikari pool. Each client sends its next order as soon as the previous answer
+ * arrives. Skipped by default, run with:
+ * <pre>
+ * ./mvnw test -Dtest=VirtualThreadLoadBenchmarkTest -Dbenchmark=true [-Dbenchmark.clients=2000] [-Dbenchmark.seconds=20]
+ * </pre>
+ * The virtual-thread run needs Java 21+, on older JDKs only the platform baseline is measured.
+ * 2,000 clients keep about 4,000 sockets open, raise {@code ulimit -n} first.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadLoadBenchmarkTest {
+
+    private static final int ITEMS = 1_000;
+
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    private static final String ORDER_JSON = "{\"orderNo\":\"%s\",\"itemId\":%d,\"qty\":1}";
+
+    @Test
+    @DisplayName("benchmark - createOrder, platform threads vs virtual threads")
+    void compareThreadModes() throws Exception {
+        int clients = Integer.getInteger("benchmark.clients", 2_000);
+        Duration duration = Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 20));
+        System.out.printf("%d clients, %d s measured after %d s warm-up%n",
+                clients, duration.toSeconds(), WARMUP.toSeconds());
+
+        Result platform = run("platform", false, clients, duration);
+        System.out.println(platform);
+
+        if (Runtime.version().feature() >= 21) {
+            System.out.println(run("virtual", true, clients, duration));
+        } else {
+            System.out.println("virtual: skipped, needs Java 21 (running " + Runtime.version() + ")");
+        }
+
+        assertThat(platform.ok()).isPositive();
+    }
+
+    // ============ HELPER ============
+
+    private Result run(String mode, boolean virtual, int clients, Duration duration) throws InterruptedException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InventoryApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:vt-bench-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "spring.jpa.show-sql=false",
+                        "inventory.checkpoint.enabled=false",
+                        "logging.level.org.hibernate.SQL=INFO",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+                        "logging.level.com.obs.inventory=INFO")
+                .run()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            jdbcTemplate.update("insert into items (id, name, price) " +
+                    "select x, 'Item ' || x, 10 from system_range(1, ?)", ITEMS);
+            jdbcTemplate.update("insert into inventories (id, item_id, qty, type, created_at) " +
+                    "select x, x, 100000000, 'T', current_timestamp from system_range(1, ?)", ITEMS);
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            LoadRun load = new LoadRun(mode, URI.create("http://localhost:" + port + "/api/v1/orders/create"),
+                    clients, duration);
+            return load.run();
+        }
+    }
+
+    private record Result(String mode, long ok, long failed, double perSecond, double p50Ms, double p99Ms, double maxMs) {
+
+        @Override
+        public String toString() {
+            return String.format("%-8s %9.0f req/s   p50 %8.1f ms   p99 %8.1f ms   max %8.1f ms   ok %d   failed %d",
+                    mode, perSecond, p50Ms, p99Ms, maxMs, ok, failed);
+        }
+    }
+
+    /**
+     * One async request chain per client, no client thread blocks while its request is in flight.
+     */
+    private static final class LoadRun {
+
+        private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+
+        private final String mode;
+
+        private final URI uri;
+
+        private final int clients;
+
+        private final Duration duration;
+
+        private final AtomicLong sequence = new AtomicLong();
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+        private final LongAdder failed = new LongAdder();
+
+        private final CountDownLatch done;
+
+        private long measureFrom;
+
+        private long end;
+
+        LoadRun(String mode, URI uri, int clients, Duration duration) {
+            this.mode = mode;
+            this.uri = uri;
+            this.clients = clients;
+            this.duration = duration;
+            this.done = new CountDownLatch(clients);
+        }
+
+        Result run() throws InterruptedException {
+            measureFrom = System.nanoTime() + WARMUP.toNanos();
+            end = measureFrom + duration.toNanos();
+            for (int i = 0; i < clients; i++) {
+                fire();
+            }
+            done.await();
+
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            return new Result(mode, sorted.length, failed.sum(),
+                    sorted.length / (duration.toNanos() / 1e9),
+                    percentileMs(sorted, 0.50), percentileMs(sorted, 0.99), percentileMs(sorted, 1.0));
+        }
+
+        private void fire() {
+            long start = System.nanoTime();
+            if (start >= end) {
+                done.countDown();
+                return;
+            }
+            long n = sequence.incrementAndGet();
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(60))
+                    .POST(HttpRequest.BodyPublishers.ofString(String.format(ORDER_JSON, mode + "-" + n, n % ITEMS + 1)))
+                    .build();
+
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (start >= measureFrom) {
+                    if (error == null && response.statusCode() == 200) {
+                        latencies.add(System.nanoTime() - start);
+                    } else {
+                        failed.increment();
+                    }
+                }
+                fire();
+            });
+        }
+
+        private static double percentileMs(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int at = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, at)] / 1e6;
+        }
+    }
+}
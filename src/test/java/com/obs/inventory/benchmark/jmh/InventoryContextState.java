@@ -0,0 +1,92 @@
+package com.obs.inventory.benchmark.jmh;
+
+import com.obs.inventory.InventoryApplication;
+import com.obs.inventory.cache.StockCache;
+import com.obs.inventory.service.ItemService;
+import com.obs.inventory.service.OrderService;
+import com.obs.inventory.service.StockService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The application without the web server, on an in-memory H2 seeded with {@code items} items, one
+ * large top up each and {@code ordersPerItem} orders each. Every item has its stock balance row, so
+ * the stock benchmarks measure steady-state reads, not the first-touch ledger aggregation.
+ */
+@State(Scope.Benchmark)
+public class InventoryContextState {
+
+    @Param("10000")
+    public int items;
+
+    @Param("5")
+    public int ordersPerItem;
+
+    ConfigurableApplicationContext context;
+
+    StockService stockService;
+
+    StockCache stockCache;
+
+    OrderService orderService;
+
+    ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(InventoryApplication.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "inventory.checkpoint.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "logging.level.com.obs.inventory=WARN")
+                .run();
+        stockService = context.getBean(StockService.class);
+        stockCache = context.getBean(StockCache.class);
+        orderService = context.getBean(OrderService.class);
+        itemService = context.getBean(ItemService.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into items (id, name, price) " +
+                "select x, 'Item ' || x, 10 from system_range(1, ?)", items);
+        jdbcTemplate.update("insert into inventories (id, item_id, qty, type, created_at) " +
+                "select x, x, 1000000000, 'T', current_timestamp from system_range(1, ?)", items);
+        jdbcTemplate.update("insert into orders (order_no, item_id, qty, price, created_at) " +
+                "select 'SEED-' || x, mod(x, ?) + 1, 1, 10, current_timestamp from system_range(1, ?)",
+                items, (long) items * ordersPerItem);
+
+        // build every balance row from the ledger, 1000 items per round trip
+        List<Integer> chunk = new ArrayList<>(1_000);
+        for (int id = 1; id <= items; id++) {
+            chunk.add(id);
+            if (chunk.size() == 1_000 || id == items) {
+                stockService.getRemainingStock(chunk);
+                chunk.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,136 @@
+package com.obs.inventory.benchmark.jmh;
+
+import com.obs.inventory.dto.InventoryResponseDto;
+import com.obs.inventory.dto.ItemResponseDto;
+import com.obs.inventory.dto.OrderResponseDto;
+import com.obs.inventory.dto.response.ResponseMessage;
+import com.obs.inventory.entity.InventoryEntity;
+import com.obs.inventory.entity.InventoryType;
+import com.obs.inventory.entity.ItemEntity;
+import com.obs.inventory.entity.OrderEntity;
+import com.obs.inventory.service.impl.InventoryServiceImpl;
+import com.obs.inventory.service.impl.ItemServiceImpl;
+import com.obs.inventory.service.impl.OrderServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.AopTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The entity to DTO mappers of the three services and JSON serialization of the response envelope,
+ * with the JsonMapper the web layer uses. The mappers are private, they are called through method
+ * handles on the unproxied service beans. Run with {@code -prof gc} for bytes per operation.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final ItemEntity item = ItemEntity.builder().id(1).name("Item 1").price(new BigDecimal("10.00")).build();
+
+    private final InventoryEntity inventory = InventoryEntity.builder()
+            .id(1).item(item).qty(5L).type(InventoryType.TOP_UP).build();
+
+    private final OrderEntity order = OrderEntity.builder()
+            .orderNo("O-1").item(item).qty(2L).price(new BigDecimal("10.00")).build();
+
+    private Object itemService;
+
+    private Object inventoryService;
+
+    private Object orderService;
+
+    private MethodHandle itemToDto;
+
+    private MethodHandle inventoryToDto;
+
+    private MethodHandle orderToDto;
+
+    private JsonMapper jsonMapper;
+
+    private ResponseMessage<ItemResponseDto> singleItem;
+
+    private ResponseMessage<ItemResponseDto> itemPage;
+
+    @Setup(Level.Trial)
+    public void setUp(InventoryContextState state) throws ReflectiveOperationException {
+        itemService = AopTestUtils.getUltimateTargetObject(state.getBean(ItemServiceImpl.class));
+        inventoryService = AopTestUtils.getUltimateTargetObject(state.getBean(InventoryServiceImpl.class));
+        orderService = AopTestUtils.getUltimateTargetObject(state.getBean(OrderServiceImpl.class));
+        itemToDto = mapper(ItemServiceImpl.class, ItemResponseDto.class, ItemEntity.class, long.class);
+        inventoryToDto = mapper(InventoryServiceImpl.class, InventoryResponseDto.class, InventoryEntity.class);
+        orderToDto = mapper(OrderServiceImpl.class, OrderResponseDto.class, OrderEntity.class);
+        jsonMapper = state.getBean(JsonMapper.class);
+
+        List<ItemResponseDto> page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 1; i <= PAGE_SIZE; i++) {
+            page.add(new ItemResponseDto(i, "Item " + i, new BigDecimal("10.00"), 1_000L + i));
+        }
+        singleItem = envelope(List.of(page.get(0)));
+        itemPage = envelope(page);
+    }
+
+    @Benchmark
+    public Object itemToDto() throws Throwable {
+        return itemToDto.invoke(itemService, item, 42L);
+    }
+
+    @Benchmark
+    public Object inventoryToDto() throws Throwable {
+        return inventoryToDto.invoke(inventoryService, inventory);
+    }
+
+    @Benchmark
+    public Object orderToDto() throws Throwable {
+        return orderToDto.invoke(orderService, order);
+    }
+
+    @Benchmark
+    public byte[] serializeSingleItem() {
+        return jsonMapper.writeValueAsBytes(singleItem);
+    }
+
+    @Benchmark
+    public byte[] serializeItemPage() {
+        return jsonMapper.writeValueAsBytes(itemPage);
+    }
+
+    // ============ HELPER ============
+
+    private MethodHandle mapper(Class<?> service, Class<?> returnType, Class<?>... parameterTypes)
+            throws ReflectiveOperationException {
+        return MethodHandles.privateLookupIn(service, MethodHandles.lookup())
+                .findVirtual(service, "toDto", MethodType.methodType(returnType, parameterTypes));
+    }
+
+    private ResponseMessage<ItemResponseDto> envelope(List<ItemResponseDto> data) {
+        ResponseMessage<ItemResponseDto> resp = new ResponseMessage<>();
+        resp.setIsError(false);
+        resp.setMessage("Success get item");
+        resp.setTrxDateResponse("01-01-2025 00:00:00");
+        resp.setData(data);
+        return resp;
+    }
+}
@@ -0,0 +1,67 @@
+package com.obs.inventory.benchmark.jmh;
+
+import com.obs.inventory.dto.ItemResponseDto;
+import com.obs.inventory.dto.OrderRequestDto;
+import com.obs.inventory.dto.OrderResponseDto;
+import com.obs.inventory.dto.response.ResponseMessage;
+import com.obs.inventory.dto.search.ItemSearchDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service hot paths end to end through the Spring proxies, JPA and H2.
+ * SampleTime reports the latency distribution (p50 / p99); run with {@code -prof gc}
+ * (the default of the jmh profile) for allocation rate and bytes per operation.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final AtomicLong ORDER_NO = new AtomicLong();
+
+    // stock cache hit, the common read
+    @Benchmark
+    public long remainingStockCached(InventoryContextState state) {
+        return state.stockService.getRemainingStock(randomItem(state));
+    }
+
+    // cache miss: an empty rebuild drops every entry, then one primary key read of stock_balances
+    @Benchmark
+    public long remainingStockFromBalance(InventoryContextState state) {
+        state.stockCache.rebuild(() -> { });
+        return state.stockService.getRemainingStock(randomItem(state));
+    }
+
+    @Benchmark
+    public ResponseMessage<OrderResponseDto> createOrder(InventoryContextState state) {
+        OrderRequestDto request = new OrderRequestDto("JMH-" + ORDER_NO.incrementAndGet(), randomItem(state), 1L);
+        return state.orderService.createOrder(request);
+    }
+
+    @Benchmark
+    public Page<ItemResponseDto> itemsPage(InventoryContextState state) {
+        int page = ThreadLocalRandom.current().nextInt(Math.max(1, state.items / PAGE_SIZE));
+        return state.itemService.getItemsPage(new ItemSearchDto(), PageRequest.of(page, PAGE_SIZE, Sort.by("id")));
+    }
+
+    private Integer randomItem(InventoryContextState state) {
+        return ThreadLocalRandom.current().nextInt(state.items) + 1;
+    }
+}
@@ -0,0 +1,102 @@
+package com.obs.inventory.cache;
+
+import com.obs.inventory.dto.ItemCacheStatsDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final ItemCache itemCache = new ItemCache(2, Duration.ofSeconds(10), now::get);
+
+    @Test
+    @DisplayName("getPrice - miss lalu hit setelah put")
+    void getPrice_missThenHit() {
+        assertThat(itemCache.getPrice(1)).isEmpty();
+
+        itemCache.put(1, BigDecimal.TEN, itemCache.generation());
+
+        assertThat(itemCache.getPrice(1)).hasValue(BigDecimal.TEN);
+
+        ItemCacheStatsDto stats = itemCache.stats();
+        assertThat(stats.getSize()).isEqualTo(1);
+        assertThat(stats.getHits()).isEqualTo(1L);
+        assertThat(stats.getMisses()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("put - melebihi max size -> satu entry dibuang, size tetap di max size")
+    void put_evictsOverMaxSize() {
+        itemCache.put(1, BigDecimal.ONE, itemCache.generation());
+        itemCache.put(2, BigDecimal.valueOf(2), itemCache.generation());
+        itemCache.put(3, BigDecimal.TEN, itemCache.generation());
+
+        ItemCacheStatsDto stats = itemCache.stats();
+        assertThat(stats.getSize()).isEqualTo(2);
+        assertThat(stats.getEvictions()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("getPrice - entry lewat TTL dianggap miss dan dibuang")
+    void getPrice_expiredAfterTtl() {
+        itemCache.put(1, BigDecimal.ONE, itemCache.generation());
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(itemCache.getPrice(1)).isEmpty();
+        ItemCacheStatsDto stats = itemCache.stats();
+        assertThat(stats.getSize()).isZero();
+        assertThat(stats.getEvictions()).isEqualTo(1L);
+        assertThat(stats.getMisses()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("invalidate - entry dihapus dan dihitung terpisah dari eviction")
+    void invalidate_countsInvalidations() {
+        itemCache.put(1, BigDecimal.ONE, itemCache.generation());
+        itemCache.invalidate(1);
+        itemCache.invalidate(2);
+
+        assertThat(itemCache.getPrice(1)).isEmpty();
+        ItemCacheStatsDto stats = itemCache.stats();
+        assertThat(stats.getInvalidations()).isEqualTo(1L);
+        assertThat(stats.getEvictions()).isZero();
+    }
+
+    @Test
+    @DisplayName("put - item di-invalidate setelah stamp diambil -> harga lama tidak masuk cache")
+    void put_afterInvalidateIgnored() {
+        long stamp = itemCache.generation();
+        // the item is updated and invalidated while the reader still holds the old row
+        itemCache.invalidate(1);
+        itemCache.put(1, BigDecimal.ONE, stamp);
+
+        assertThat(itemCache.getPrice(1)).isEmpty();
+
+        itemCache.put(1, BigDecimal.TEN, itemCache.generation());
+
+        assertThat(itemCache.getPrice(1)).hasValue(BigDecimal.TEN);
+    }
+
+    @Test
+    @DisplayName("put - riwayat invalidate yang sudah dibuang -> stamp lama ditolak")
+    void put_stampOlderThanForgottenInvalidate() {
+        long stamp = itemCache.generation();
+        itemCache.invalidate(1);
+        itemCache.invalidate(2);
+        itemCache.invalidate(3);
+
+        itemCache.put(1, BigDecimal.ONE, stamp);
+        itemCache.put(4, BigDecimal.ONE, stamp);
+
+        assertThat(itemCache.getPrice(1)).isEmpty();
+        assertThat(itemCache.getPrice(4)).isEmpty();
+    }
+}
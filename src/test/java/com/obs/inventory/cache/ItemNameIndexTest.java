@@ -0,0 +1,102 @@
+package com.obs.inventory.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemNameIndexTest {
+
+    private final ItemNameIndex index = new ItemNameIndex();
+
+    @BeforeEach
+    void seed() {
+        index.put(1, "Ballpoint Pen");
+        index.put(2, "Pen");
+        index.put(3, "Pencil Case");
+        index.put(4, "Open Notebook");
+        index.put(5, "Book");
+    }
+
+    @Test
+    @DisplayName("search - substring, ranking exact > prefix > awal kata > substring")
+    void search_rankedSubstring() {
+        assertThat(index.search("PEN", 10)).containsExactly(2, 3, 1, 4);
+    }
+
+    @Test
+    @DisplayName("search - trigram cocok tapi urutan berbeda tidak dianggap match")
+    void search_verifiesSubstring() {
+        index.put(6, "abc bcd");
+
+        assertThat(index.search("abcd", 10)).isEmpty();
+        assertThat(index.search("c bc", 10)).containsExactly(6);
+    }
+
+    @Test
+    @DisplayName("search - term 1-2 huruf hanya cocok di awal kata")
+    void search_shortTermWordPrefix() {
+        assertThat(index.search("pe", 10)).containsExactly(2, 3, 1);
+        assertThat(index.search("b", 10)).containsExactly(5, 1);
+        assertThat(index.search("en", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("search - limit mengambil hasil terbaik")
+    void search_limit() {
+        assertThat(index.search("pen", 2)).containsExactly(2, 3);
+    }
+
+    @Test
+    @DisplayName("put / remove - update nama dan delete langsung terlihat di search")
+    void putAndRemove_keepIndexInSync() {
+        index.put(2, "Marker");
+        index.remove(3);
+
+        assertThat(index.search("pen", 10)).containsExactly(1, 4);
+        assertThat(index.search("mark", 10)).containsExactly(2);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("rebuild - search tetap pakai index lama selama load, lalu diganti index baru")
+    void rebuild_swapsWhenLoaded() {
+        index.rebuild(sink -> {
+            sink.accept(7, "Pen Holder");
+            assertThat(index.search("pen", 10)).containsExactly(2, 3, 1, 4);
+        });
+
+        assertThat(index.search("pen", 10)).containsExactly(7);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("rebuild - put / remove selama load menang atas row lama dari loader")
+    void rebuild_keepsWritesDuringLoad() {
+        index.rebuild(sink -> {
+            index.remove(1);
+            index.put(2, "Marker");
+            sink.accept(1, "Ballpoint Pen");
+            sink.accept(2, "Pen");
+            sink.accept(3, "Pencil Case");
+        });
+
+        assertThat(index.search("pen", 10)).containsExactly(3);
+        assertThat(index.search("mark", 10)).containsExactly(2);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("rebuild - loader gagal, index lama tetap dipakai")
+    void rebuild_failedLoadKeepsIndex() {
+        assertThatThrownBy(() -> index.rebuild(sink -> {
+            sink.accept(7, "Pen Holder");
+            throw new IllegalStateException("stream closed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(index.search("pen", 10)).containsExactly(2, 3, 1, 4);
+        assertThat(index.size()).isEqualTo(5);
+    }
+}
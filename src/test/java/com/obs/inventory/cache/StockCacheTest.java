@@ -0,0 +1,83 @@
+package com.obs.inventory.cache;
+
+import com.obs.inventory.dto.StockCacheStatsDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StockCacheTest {
+
+    private final StockCache stockCache = new StockCache();
+
+    @Test
+    @DisplayName("get - miss lalu hit setelah put")
+    void get_missThenHit() {
+        assertThat(stockCache.get(1)).isEmpty();
+
+        stockCache.put(1, 10L, 0L);
+
+        assertThat(stockCache.get(1)).hasValue(10L);
+
+        StockCacheStatsDto stats = stockCache.stats();
+        assertThat(stats.getSize()).isEqualTo(1);
+        assertThat(stats.getHits()).isEqualTo(1L);
+        assertThat(stats.getMisses()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("put - versi lama tidak menimpa versi yang lebih baru")
+    void put_olderVersionIgnored() {
+        stockCache.put(1, 7L, 5L);
+        stockCache.put(1, 10L, 4L);
+
+        assertThat(stockCache.get(1)).hasValue(7L);
+
+        stockCache.put(1, 3L, 6L);
+
+        assertThat(stockCache.get(1)).hasValue(3L);
+    }
+
+    @Test
+    @DisplayName("rebuild - update size dan counter rebuild")
+    void rebuildCounter() {
+        stockCache.put(1, 7L, 0L);
+        stockCache.rebuild(() -> { });
+
+        StockCacheStatsDto stats = stockCache.stats();
+        assertThat(stats.getSize()).isZero();
+        assertThat(stats.getRebuilds()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("rebuild - map diganti, put yang masuk selama load tidak hilang")
+    void rebuild_replacesMapKeepsConcurrentPuts() {
+        stockCache.put(1, 7L, 0L);
+        stockCache.put(2, 8L, 0L);
+
+        stockCache.rebuild(() -> {
+            stockCache.put(1, 5L, 1L);
+            // a writer commits while the rows are read, the loader then puts the older row
+            stockCache.put(3, 9L, 2L);
+            stockCache.put(3, 4L, 1L);
+        });
+
+        assertThat(stockCache.get(1)).hasValue(5L);
+        assertThat(stockCache.get(2)).isEmpty();
+        assertThat(stockCache.get(3)).hasValue(9L);
+    }
+
+    @Test
+    @DisplayName("rebuild - loader gagal, isi lama tetap dipakai")
+    void rebuild_failedLoaderKeepsOldMap() {
+        stockCache.put(1, 7L, 0L);
+
+        assertThatThrownBy(() -> stockCache.rebuild(() -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(stockCache.get(1)).hasValue(7L);
+        assertThat(stockCache.stats().getRebuilds()).isZero();
+    }
+}
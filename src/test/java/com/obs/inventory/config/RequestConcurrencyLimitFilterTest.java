@@ -0,0 +1,110 @@
+package com.obs.inventory.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestConcurrencyLimitFilterTest {
+
+    private final RequestConcurrencyLimitFilter filter =
+            new RequestConcurrencyLimitFilter(1, Duration.ofMillis(50), JsonMapper.builder().build());
+
+    @Test
+    @DisplayName("doFilter - permit dilepas setelah request selesai")
+    void doFilter_releasesPermit() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/items/1"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(filter.available()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("doFilter - semua permit terpakai melewati queue timeout -> 503 ERR-503")
+    void doFilter_rejectsAfterQueueTimeout() throws Exception {
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> busy = executor.submit(() -> {
+                filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/orders/create"),
+                        new MockHttpServletResponse(),
+                        (request, response) -> {
+                            inside.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException ex) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+                return null;
+            });
+            assertThat(inside.await(5, TimeUnit.SECONDS)).isTrue();
+
+            MockHttpServletResponse rejected = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/items/1"), rejected, new MockFilterChain());
+
+            assertThat(rejected.getStatus()).isEqualTo(503);
+            assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+            assertThat(rejected.getContentAsString()).contains("\"errorNumber\":\"ERR-503\"");
+
+            release.countDown();
+            busy.get(5, TimeUnit.SECONDS);
+            assertThat(filter.available()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("doFilter - request async (export) memegang permit sampai async selesai")
+    void doFilter_asyncKeepsPermitUntilComplete() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/inventories/export");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertThat(filter.available()).isZero();
+
+        request.getAsyncContext().complete();
+
+        assertThat(filter.available()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("doFilter - actuator dan statistik cache tidak dibatasi walau semua permit terpakai")
+    void doFilter_unlimitedPathsSkipQueue() throws Exception {
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/api/v1/inventories/export");
+        export.setAsyncSupported(true);
+        filter.doFilter(export, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        for (String path : new String[]{"/actuator/health", "/api/v1/items/cache", "/api/v1/items/cache/l2",
+                "/api/v1/stocks/cache"}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", path), response, new MockFilterChain());
+            assertThat(response.getStatus()).as(path).isEqualTo(200);
+        }
+
+        MockHttpServletResponse rebuild = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/stocks/cache/rebuild"), rebuild, new MockFilterChain());
+        assertThat(rebuild.getStatus()).isEqualTo(503);
+
+        export.getAsyncContext().complete();
+        assertThat(filter.available()).isEqualTo(1);
+    }
+}
@@ -1,9 +1,12 @@
 package com.obs.inventory.controller;
 
+import com.obs.inventory.dto.InventoryIngestResultDto;
 import com.obs.inventory.dto.InventoryRequestDto;
 import com.obs.inventory.dto.InventoryResponseDto;
+import com.obs.inventory.dto.response.CursorPageDto;
 import com.obs.inventory.dto.response.ResponseMessage;
 import com.obs.inventory.dto.search.InventorySearchDto;
+import com.obs.inventory.exception.ErrorBusinessException;
 import com.obs.inventory.service.InventoryService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,12 +15,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
-
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -72,13 +86,80 @@ class InventoryControllerTest {
         when(inventoryService.getInventoriesPage(any(InventorySearchDto.class), any(Pageable.class)))
                 .thenReturn(page);
 
-        Page<InventoryResponseDto> result =
-                inventoryController.getInventoriesPage(search, pageable);
+        Slice<InventoryResponseDto> result =
+                inventoryController.getInventoriesPage(search, pageable, true);
 
         assertThat(result).isSameAs(page);
         verify(inventoryService).getInventoriesPage(search, pageable);
     }
 
+    @Test
+    @DisplayName("getInventoriesPage - count=false -> slice tanpa query count")
+    void getInventoriesPage_countFalse_shouldReturnSlice() {
+        InventorySearchDto search = new InventorySearchDto();
+        Pageable pageable = PageRequest.of(0, 10);
+        Slice<InventoryResponseDto> slice = new SliceImpl<>(List.of(buildResponseDto(1, 5, 10L, "T")), pageable, true);
+
+        when(inventoryService.getInventoriesSlice(search, pageable)).thenReturn(slice);
+
+        Slice<InventoryResponseDto> result = inventoryController.getInventoriesPage(search, pageable, false);
+
+        assertThat(result).isSameAs(slice);
+        verify(inventoryService).getInventoriesSlice(search, pageable);
+        verifyNoMoreInteractions(inventoryService);
+    }
+
+    // ===== getInventoriesCursor =====
+
+    @Test
+    @DisplayName("getInventoriesCursor - delegasi cursor dan size ke service")
+    void getInventoriesCursor_shouldDelegateToService() {
+        InventorySearchDto search = new InventorySearchDto();
+        CursorPageDto<InventoryResponseDto> page = CursorPageDto.<InventoryResponseDto>builder()
+                .content(List.of(buildResponseDto(1, 5, 10L, "T")))
+                .size(20)
+                .hasNext(false)
+                .build();
+
+        when(inventoryService.getInventoriesAfter(search, "abc", 20)).thenReturn(page);
+
+        CursorPageDto<InventoryResponseDto> result = inventoryController.getInventoriesCursor(search, "abc", 20);
+
+        assertThat(result).isSameAs(page);
+        verify(inventoryService).getInventoriesAfter(search, "abc", 20);
+    }
+
+    // ===== exportInventories =====
+
+    @Test
+    @DisplayName("exportInventories - body NDJSON menulis lewat service ke output stream response")
+    void exportInventories_shouldStreamThroughService() throws Exception {
+        InventorySearchDto search = new InventorySearchDto();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ResponseEntity<StreamingResponseBody> response = inventoryController.exportInventories(search);
+        response.getBody().writeTo(out);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        verify(inventoryService).validateInventorySearch(search);
+        verify(inventoryService).exportInventories(search, out);
+    }
+
+    @Test
+    @DisplayName("exportInventories - filter type tidak valid gagal sebelum stream dimulai")
+    void exportInventories_invalidTypeBeforeStreaming() {
+        InventorySearchDto search = new InventorySearchDto();
+        search.setType("X");
+        doThrow(new ErrorBusinessException("Invalid inventory type", "INV-VAL-006"))
+                .when(inventoryService).validateInventorySearch(search);
+
+        assertThatThrownBy(() -> inventoryController.exportInventories(search))
+                .isInstanceOf(ErrorBusinessException.class)
+                .extracting("errorNumber")
+                .isEqualTo("INV-VAL-006");
+        verify(inventoryService, never()).exportInventories(any(), any());
+    }
+
     // ===== getInventory =====
 
     @Test
@@ -135,6 +216,25 @@ class InventoryControllerTest {
         verify(inventoryService).updateInventory(req);
     }
 
+    // ===== ingestInventories =====
+
+    @Test
+    @DisplayName("ingestInventories - delegasi body stream dan content type ke service")
+    void ingestInventories_shouldDelegateToService() {
+        InputStream body = new ByteArrayInputStream("1,5,10,T\n".getBytes(StandardCharsets.UTF_8));
+        ResponseMessage<InventoryIngestResultDto> resp = new ResponseMessage<>();
+        resp.setIsError(false);
+        resp.setMessage("Inventory ingest processed: 1 accepted, 0 rejected");
+        resp.setData(List.of(InventoryIngestResultDto.builder().accepted(1L).rejected(0L).build()));
+
+        when(inventoryService.ingestInventories(body, "text/csv")).thenReturn(resp);
+
+        ResponseMessage<InventoryIngestResultDto> result = inventoryController.ingestInventories("text/csv", body);
+
+        assertThat(result).isSameAs(resp);
+        verify(inventoryService).ingestInventories(body, "text/csv");
+    }
+
     // ===== deleteInventory =====
 
     @Test
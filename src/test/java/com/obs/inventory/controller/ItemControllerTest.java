@@ -1,7 +1,9 @@
 package com.obs.inventory.controller;
 
+import com.obs.inventory.dto.ItemCacheStatsDto;
 import com.obs.inventory.dto.ItemRequestDto;
 import com.obs.inventory.dto.ItemResponseDto;
+import com.obs.inventory.dto.SecondLevelCacheStatsDto;
 import com.obs.inventory.dto.response.ResponseMessage;
 import com.obs.inventory.dto.search.ItemSearchDto;
 import com.obs.inventory.service.ItemService;
@@ -12,13 +14,20 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,6 +57,14 @@ class ItemControllerTest {
         return dto;
     }
 
+    private ServletWebRequest webRequest(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/items/1");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+
     private <T> ResponseMessage<T> wrap(T data, String message) {
         ResponseMessage<T> resp = new ResponseMessage<>();
         resp.setIsError(false);
@@ -72,28 +89,104 @@ class ItemControllerTest {
         when(itemService.getItemsPage(any(ItemSearchDto.class), any(Pageable.class)))
                 .thenReturn(page);
 
-        Page<ItemResponseDto> result = itemController.getItemsPage(search, pageable);
+        Slice<ItemResponseDto> result = itemController.getItemsPage(search, pageable, true);
 
         assertThat(result).isSameAs(page);
         verify(itemService).getItemsPage(search, pageable);
     }
 
+    @Test
+    @DisplayName("getItemsPage - count=false -> slice tanpa query count")
+    void getItemsPage_countFalse_shouldReturnSlice() {
+        ItemSearchDto search = new ItemSearchDto();
+        Pageable pageable = PageRequest.of(0, 10);
+        Slice<ItemResponseDto> slice = new SliceImpl<>(List.of(buildResponseDto(1, "Pen", BigDecimal.valueOf(5), 10L)), pageable, true);
+
+        when(itemService.getItemsSlice(search, pageable)).thenReturn(slice);
+
+        Slice<ItemResponseDto> result = itemController.getItemsPage(search, pageable, false);
+
+        assertThat(result).isSameAs(slice);
+        verify(itemService).getItemsSlice(search, pageable);
+        verifyNoMoreInteractions(itemService);
+    }
+
+    // ===== searchItems =====
+
+    @Test
+    @DisplayName("searchItems - delegasi ke service dengan term dan limit")
+    void searchItems_shouldDelegateToService() {
+        ResponseMessage<Integer> resp = wrap(7, "Success search items");
+
+        when(itemService.searchItemIds("pen", 20)).thenReturn(resp);
+
+        ResponseMessage<Integer> result = itemController.searchItems("pen", 20);
+
+        assertThat(result).isSameAs(resp);
+        verify(itemService).searchItemIds("pen", 20);
+    }
+
+    // ===== getCacheStats =====
+
+    @Test
+    @DisplayName("getCacheStats - delegasi ke service")
+    void getCacheStats_shouldDelegateToService() {
+        ResponseMessage<ItemCacheStatsDto> resp = wrap(ItemCacheStatsDto.builder().size(1).build(),
+                "Success get item cache stats");
+
+        when(itemService.getCacheStats()).thenReturn(resp);
+
+        assertThat(itemController.getCacheStats()).isSameAs(resp);
+        verify(itemService).getCacheStats();
+    }
+
+    // ===== getSecondLevelCacheStats =====
+
+    @Test
+    @DisplayName("getSecondLevelCacheStats - delegasi ke service")
+    void getSecondLevelCacheStats_shouldDelegateToService() {
+        ResponseMessage<SecondLevelCacheStatsDto> resp = wrap(SecondLevelCacheStatsDto.builder().region("items").build(),
+                "Success get second-level cache stats");
+
+        when(itemService.getSecondLevelCacheStats()).thenReturn(resp);
+
+        assertThat(itemController.getSecondLevelCacheStats()).isSameAs(resp);
+        verify(itemService).getSecondLevelCacheStats();
+    }
+
     // ===== getItem =====
 
     @Test
-    @DisplayName("getItem - delegasi ke service dan kembalikan response yang sama")
+    @DisplayName("getItem - delegasi ke service, response sama dan header ETag terisi")
     void getItem_shouldDelegateToService() {
         ItemResponseDto dto = buildResponseDto(1, "Pen", BigDecimal.valueOf(5), 10L);
         ResponseMessage<ItemResponseDto> resp = wrap(dto, "Success get item");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
 
+        when(itemService.getItemETag(1)).thenReturn("abc-3");
         when(itemService.getItem(1)).thenReturn(resp);
 
-        ResponseMessage<ItemResponseDto> result = itemController.getItem(1);
+        ResponseMessage<ItemResponseDto> result = itemController.getItem(1, webRequest(null, servletResponse));
 
         assertThat(result).isSameAs(resp);
+        assertThat(servletResponse.getHeader(HttpHeaders.ETAG)).isEqualTo("\"abc-3\"");
         verify(itemService).getItem(1);
     }
 
+    @Test
+    @DisplayName("getItem - If-None-Match sama dengan ETag -> 304 tanpa memanggil getItem")
+    void getItem_notModified() {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        when(itemService.getItemETag(1)).thenReturn("abc-3");
+
+        ResponseMessage<ItemResponseDto> result = itemController.getItem(1, webRequest("\"abc-3\"", servletResponse));
+
+        assertThat(result).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        verify(itemService, never()).getItem(anyInt());
+    }
+
     // ===== createItem =====
 
     @Test
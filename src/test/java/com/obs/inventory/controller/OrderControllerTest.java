@@ -1,7 +1,9 @@
 package com.obs.inventory.controller;
 
+import com.obs.inventory.dto.OrderBulkLineDto;
 import com.obs.inventory.dto.OrderRequestDto;
 import com.obs.inventory.dto.OrderResponseDto;
+import com.obs.inventory.dto.response.CursorPageDto;
 import com.obs.inventory.dto.response.ResponseMessage;
 import com.obs.inventory.dto.search.OrderSearchDto;
 import com.obs.inventory.service.OrderService;
@@ -12,13 +14,24 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
-
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,6 +61,14 @@ class OrderControllerTest {
         return dto;
     }
 
+    private ServletWebRequest webRequest(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders/O1");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+
     private <T> ResponseMessage<T> wrap(T data, String message) {
         ResponseMessage<T> resp = new ResponseMessage<>();
         resp.setIsError(false);
@@ -72,31 +93,102 @@ class OrderControllerTest {
         when(orderService.getOrdersPages(any(OrderSearchDto.class), any(Pageable.class)))
                 .thenReturn(page);
 
-        Page<OrderResponseDto> result =
-                orderController.getOrderPages(search, pageable);
+        Slice<OrderResponseDto> result =
+                orderController.getOrderPages(search, pageable, true);
 
         assertThat(result).isSameAs(page);
         verify(orderService).getOrdersPages(search, pageable);
     }
 
+    @Test
+    @DisplayName("getOrderPages - count=false -> slice tanpa query count")
+    void getOrderPages_countFalse_shouldReturnSlice() {
+        OrderSearchDto search = new OrderSearchDto();
+        Pageable pageable = PageRequest.of(0, 10);
+        Slice<OrderResponseDto> slice = new SliceImpl<>(List.of(buildResponseDto("O1", 1, 5L, BigDecimal.valueOf(10))), pageable, true);
+
+        when(orderService.getOrdersSlice(search, pageable)).thenReturn(slice);
+
+        Slice<OrderResponseDto> result = orderController.getOrderPages(search, pageable, false);
+
+        assertThat(result).isSameAs(slice);
+        verify(orderService).getOrdersSlice(search, pageable);
+        verifyNoMoreInteractions(orderService);
+    }
+
+    // ===== getOrdersCursor =====
+
+    @Test
+    @DisplayName("getOrdersCursor - delegasi cursor dan size ke service")
+    void getOrdersCursor_shouldDelegateToService() {
+        OrderSearchDto search = new OrderSearchDto();
+        CursorPageDto<OrderResponseDto> page = CursorPageDto.<OrderResponseDto>builder()
+                .content(List.of(buildResponseDto("O1", 1, 5L, BigDecimal.valueOf(10))))
+                .size(20)
+                .hasNext(false)
+                .build();
+
+        when(orderService.getOrdersAfter(search, null, 20)).thenReturn(page);
+
+        CursorPageDto<OrderResponseDto> result = orderController.getOrdersCursor(search, null, 20);
+
+        assertThat(result).isSameAs(page);
+        verify(orderService).getOrdersAfter(search, null, 20);
+    }
+
+    // ===== exportOrders =====
+
+    @Test
+    @DisplayName("exportOrders - body NDJSON menulis lewat service ke output stream response")
+    void exportOrders_shouldStreamThroughService() throws Exception {
+        OrderSearchDto search = new OrderSearchDto();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ResponseEntity<StreamingResponseBody> response = orderController.exportOrders(search);
+        response.getBody().writeTo(out);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        verify(orderService).exportOrders(search, out);
+    }
+
     // ===== getOrder =====
 
     @Test
-    @DisplayName("getOrder - delegasi ke service dan kembalikan response yang sama")
+    @DisplayName("getOrder - delegasi ke service, response sama dan header ETag terisi")
     void getOrder_shouldDelegateToService() {
         OrderResponseDto dto = buildResponseDto("O1", 1, 5L, BigDecimal.valueOf(10));
         ResponseMessage<OrderResponseDto> resp =
                 wrap(dto, "Success get order");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
 
         when(orderService.getOrder("O1")).thenReturn(resp);
+        when(orderService.getOrderETag(dto)).thenReturn("abc");
 
         ResponseMessage<OrderResponseDto> result =
-                orderController.getOrder("O1");
+                orderController.getOrder("O1", webRequest(null, servletResponse));
 
         assertThat(result).isSameAs(resp);
+        assertThat(servletResponse.getHeader(HttpHeaders.ETAG)).isEqualTo("\"abc\"");
         verify(orderService).getOrder("O1");
     }
 
+    @Test
+    @DisplayName("getOrder - If-None-Match sama dengan ETag -> 304, order dibaca sekali")
+    void getOrder_notModified() {
+        OrderResponseDto dto = buildResponseDto("O1", 1, 5L, BigDecimal.valueOf(10));
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        when(orderService.getOrder("O1")).thenReturn(wrap(dto, "Success get order"));
+        when(orderService.getOrderETag(dto)).thenReturn("abc");
+
+        ResponseMessage<OrderResponseDto> result =
+                orderController.getOrder("O1", webRequest("\"abc\"", servletResponse));
+
+        assertThat(result).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        verify(orderService, times(1)).getOrder("O1");
+    }
+
     // ===== createOrder =====
 
     @Test
@@ -135,6 +227,27 @@ class OrderControllerTest {
         verify(orderService).updateOrder(req);
     }
 
+    // ===== createOrders (bulk) =====
+
+    @Test
+    @DisplayName("createOrders - delegasi ke service")
+    void createOrders_shouldDelegateToService() {
+        List<OrderRequestDto> req = List.of(buildRequest("O1", 1, 2L), buildRequest("O2", 1, 3L));
+        OrderBulkLineDto line = OrderBulkLineDto.builder()
+                .line(0)
+                .orderNo("O1")
+                .isError(false)
+                .build();
+        ResponseMessage<OrderBulkLineDto> resp = wrap(line, "Bulk order processed: 2 created, 0 rejected");
+
+        when(orderService.createOrders(req)).thenReturn(resp);
+
+        ResponseMessage<OrderBulkLineDto> result = orderController.createOrders(req);
+
+        assertThat(result).isSameAs(resp);
+        verify(orderService).createOrders(req);
+    }
+
     // ===== deleteOrder =====
 
     @Test
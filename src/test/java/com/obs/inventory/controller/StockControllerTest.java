@@ -0,0 +1,81 @@
+package com.obs.inventory.controller;
+
+import com.obs.inventory.dto.StockCacheStatsDto;
+import com.obs.inventory.dto.StockCheckpointResultDto;
+import com.obs.inventory.dto.response.ResponseMessage;
+import com.obs.inventory.service.StockCheckpointService;
+import com.obs.inventory.service.StockService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockControllerTest {
+
+    @Mock
+    private StockService stockService;
+
+    @Mock
+    private StockCheckpointService stockCheckpointService;
+
+    @InjectMocks
+    private StockController stockController;
+
+    // ===== helper =====
+
+    private ResponseMessage<StockCacheStatsDto> wrap(StockCacheStatsDto data, String message) {
+        ResponseMessage<StockCacheStatsDto> resp = new ResponseMessage<>();
+        resp.setIsError(false);
+        resp.setMessage(message);
+        resp.setData(List.of(data));
+        resp.setTrxDateResponse("dummy-date");
+        return resp;
+    }
+
+    @Test
+    @DisplayName("getCacheStats - delegasi ke service")
+    void getCacheStats_shouldDelegateToService() {
+        ResponseMessage<StockCacheStatsDto> resp = wrap(StockCacheStatsDto.builder()
+                .size(1).hits(2L).misses(1L).rebuilds(1L).build(), "Success get stock cache stats");
+
+        when(stockService.getCacheStats()).thenReturn(resp);
+
+        assertThat(stockController.getCacheStats()).isSameAs(resp);
+        verify(stockService).getCacheStats();
+    }
+
+    @Test
+    @DisplayName("rebuildCache - delegasi ke service")
+    void rebuildCache_shouldDelegateToService() {
+        ResponseMessage<StockCacheStatsDto> resp = wrap(StockCacheStatsDto.builder()
+                .size(1).hits(0L).misses(0L).rebuilds(2L).build(), "Stock cache rebuilt successfully");
+
+        when(stockService.rebuildCache()).thenReturn(resp);
+
+        assertThat(stockController.rebuildCache()).isSameAs(resp);
+        verify(stockService).rebuildCache();
+    }
+
+    @Test
+    @DisplayName("createCheckpoints - delegasi ke service")
+    void createCheckpoints_shouldDelegateToService() {
+        ResponseMessage<StockCheckpointResultDto> resp = new ResponseMessage<>();
+        resp.setIsError(false);
+        resp.setMessage("Stock checkpoint created successfully");
+        resp.setData(List.of(StockCheckpointResultDto.builder().chunks(1).itemsCheckpointed(3L).build()));
+
+        when(stockCheckpointService.createCheckpoints()).thenReturn(resp);
+
+        assertThat(stockController.createCheckpoints()).isSameAs(resp);
+        verify(stockCheckpointService).createCheckpoints();
+    }
+}
@@ -0,0 +1,73 @@
+package com.obs.inventory.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final InventoryMetrics metrics = new InventoryMetrics(registry);
+
+    @Test
+    @DisplayName("recordStockLookup - timer dipisah per cache hit / miss")
+    void recordStockLookup_taggedByCache() {
+        metrics.recordStockLookup(true, 1_000);
+        metrics.recordStockLookup(true, 1_000);
+        metrics.recordStockLookup(false, 5_000_000);
+
+        assertThat(registry.get(InventoryMetrics.STOCK_REMAINING).tag("cache", "hit").timer().count())
+                .isEqualTo(2);
+        assertThat(registry.get(InventoryMetrics.STOCK_REMAINING).tag("cache", "miss").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("orderFailed - ORD-001 / ORD-002 / lainnya masuk outcome masing-masing")
+    void orderOutcomes() {
+        metrics.orderCreated();
+        metrics.orderFailed("ORD-001");
+        metrics.orderFailed("ORD-002");
+        metrics.orderFailed("ORD-ITEM-404");
+        metrics.orderFailed("ORD-VAL-001");
+
+        assertThat(outcome("success")).isEqualTo(1.0);
+        assertThat(outcome("insufficient_stock")).isEqualTo(1.0);
+        assertThat(outcome("duplicate")).isEqualTo(1.0);
+        assertThat(outcome("rejected")).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("businessError - counter per errorNumber")
+    void businessError_taggedByErrorNumber() {
+        metrics.businessError("ITEM-404");
+        metrics.businessError("ITEM-404");
+        metrics.businessError(null);
+
+        assertThat(registry.get(InventoryMetrics.BUSINESS_ERRORS).tag("errorNumber", "ITEM-404").counter().count())
+                .isEqualTo(2.0);
+        assertThat(registry.get(InventoryMetrics.BUSINESS_ERRORS).tag("errorNumber", "none").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("recordRequestSql - jumlah statement dan waktu JDBC per route")
+    void recordRequestSql_taggedByRoute() {
+        metrics.recordRequestSql("GET", "/api/v1/items/{id}", 2, 3_000_000);
+        metrics.recordRequestSql("GET", "/api/v1/items/{id}", 4, 1_000_000);
+
+        assertThat(registry.get(InventoryMetrics.HTTP_SQL_STATEMENTS).tag("uri", "/api/v1/items/{id}").summary()
+                .totalAmount()).isEqualTo(6.0);
+        assertThat(registry.get(InventoryMetrics.HTTP_SQL_TIME).tag("method", "GET").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(4.0);
+    }
+
+    private double outcome(String outcome) {
+        return registry.get(InventoryMetrics.ORDERS_CREATE).tag("outcome", outcome).counter().count();
+    }
+}
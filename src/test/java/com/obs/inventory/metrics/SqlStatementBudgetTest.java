@@ -0,0 +1,110 @@
+package com.obs.inventory.metrics;
+
+import com.obs.inventory.service.ItemService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement budgets of the hot reads, measured through the tracking data source. A new per-row
+ * lookup in a page (N+1) breaks these before it reaches production.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:sql-budget;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "inventory.checkpoint.enabled=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+class SqlStatementBudgetTest {
+
+    private static final Pattern STATEMENTS = Pattern.compile("db;dur=[0-9.]+;desc=\"(\\d+) statements\"");
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // balances in the table but not in the stock cache, the page has to read them
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("delete from stock_balances");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("insert into items (id, name, price) select x, 'Item ' || x, 10 from system_range(1, 30)");
+        jdbcTemplate.update("insert into stock_balances (item_id, on_hand, version) select x, 5, 0 from system_range(1, 30)");
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/items - satu halaman maksimal 3 statement (page, count, stock)")
+    void getItemsPage_withinBudget() throws Exception {
+        HttpResponse<String> response = get("/api/v1/items?page=0&size=20&sort=id");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(statements(response)).isBetween(1, 3);
+        assertThat(meterRegistry.get(InventoryMetrics.HTTP_SQL_STATEMENTS)
+                .tag("method", "GET")
+                .tag("uri", "/api/v1/items")
+                .summary().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/items?count=false - slice tanpa count, maksimal 2 statement")
+    void getItemsSlice_withinBudget() throws Exception {
+        HttpResponse<String> response = get("/api/v1/items?page=0&size=20&sort=id&count=false");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(statements(response)).isBetween(1, 2);
+    }
+
+    @Test
+    @DisplayName("scope di test - lookup per item terdeteksi sebagai statement berulang (N+1)")
+    void scope_detectsRepeatedStatement() {
+        try (SqlStatementTracker.Scope sql = SqlStatementTracker.start()) {
+            // items the page tests never read, their stock is not cached yet
+            for (int id = 21; id <= 30; id++) {
+                itemService.getItem(id);
+            }
+
+            assertThat(sql.getStatements()).isGreaterThanOrEqualTo(10);
+            assertThat(sql.getMaxRepeats()).isGreaterThanOrEqualTo(10);
+            assertThat(sql.getMostRepeated()).containsIgnoringCase("select");
+        }
+    }
+
+    // ============ HELPER ============
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private int statements(HttpResponse<String> response) {
+        String header = response.headers().firstValue(SqlStatementFilter.SERVER_TIMING).orElseThrow();
+        Matcher matcher = STATEMENTS.matcher(header);
+        assertThat(matcher.matches()).as(header).isTrue();
+        return Integer.parseInt(matcher.group(1));
+    }
+}
@@ -0,0 +1,99 @@
+package com.obs.inventory.repository;
+
+import com.obs.inventory.dto.InventoryResponseDto;
+import com.obs.inventory.entity.InventoryEntity;
+import com.obs.inventory.entity.InventoryType;
+import com.obs.inventory.entity.ItemEntity;
+import com.obs.inventory.repository.InsertRepositoryStatementCountTest.SqlRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:slice-repo;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.obs.inventory.repository.InsertRepositoryStatementCountTest$SqlRecorder",
+        "inventory.checkpoint.enabled=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+class BaseJpaRepositoryTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("merge into items (id, name, price) key (id) " +
+                "select x, 'Item ' || x, 10 from system_range(1, 5)");
+        jdbcTemplate.update("merge into inventories (id, item_id, qty, type, created_at) key (id) " +
+                "select x, 1 + mod(x, 2), x, case when x < 4 then 'T' else 'W' end, current_timestamp " +
+                "from system_range(1, 5)");
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    @Test
+    @DisplayName("findSlice - satu SELECT dengan limit size+1, tanpa count")
+    void findSlice_singleStatement() {
+        Specification<ItemEntity> all = (root, query, cb) -> cb.conjunction();
+
+        Slice<ItemEntity> first = itemRepository.findSlice(all, PageRequest.of(0, 2, Sort.by("id")));
+
+        assertThat(first.getContent()).extracting("id").containsExactly(1, 2);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(SqlRecorder.STATEMENTS).hasSize(1);
+        assertThat(SqlRecorder.STATEMENTS.get(0)).doesNotContain("count(");
+
+        Slice<ItemEntity> last = itemRepository.findSlice(all, PageRequest.of(2, 2, Sort.by("id")));
+
+        assertThat(last.getContent()).extracting("id").containsExactly(5);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("findProjectedPage - DTO langsung dari select, hanya filter yang diisi, tanpa join ke items")
+    void findProjectedPage_onlySetFilters() {
+        Specification<InventoryEntity> topUps = (root, query, cb) -> cb.equal(root.get("type"), InventoryType.TOP_UP);
+
+        Page<InventoryResponseDto> page = inventoryRepository.findProjectedPage(topUps, PageRequest.of(0, 2, Sort.by("id")),
+                InventoryResponseDto.class, "id", "item.id", "qty", "type");
+
+        assertThat(page.getContent()).extracting("id", "itemId", "type")
+                .containsExactly(tuple(1, 2, "T"), tuple(2, 1, "T"));
+        assertThat(page.getTotalElements()).isEqualTo(3);
+
+        String select = SqlRecorder.STATEMENTS.get(0).toLowerCase();
+        assertThat(select).doesNotContain(" is null").doesNotContain("join");
+    }
+
+    @Test
+    @DisplayName("findProjected - seek dengan limit, satu SELECT tanpa count")
+    void findProjected_limit() {
+        Specification<InventoryEntity> afterTwo = (root, query, cb) -> cb.greaterThan(root.get("id"), 2);
+
+        List<InventoryResponseDto> rows = inventoryRepository.findProjected(afterTwo, Sort.by("id"), 2,
+                InventoryResponseDto.class, "id", "item.id", "qty", "type");
+
+        assertThat(rows).extracting("id").containsExactly(3, 4);
+        assertThat(SqlRecorder.STATEMENTS).hasSize(1);
+    }
+}
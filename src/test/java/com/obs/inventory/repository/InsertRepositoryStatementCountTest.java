@@ -0,0 +1,138 @@
+package com.obs.inventory.repository;
+
+import com.obs.inventory.dto.InventoryRequestDto;
+import com.obs.inventory.dto.ItemRequestDto;
+import com.obs.inventory.dto.OrderRequestDto;
+import com.obs.inventory.entity.ItemEntity;
+import com.obs.inventory.exception.ErrorBusinessException;
+import com.obs.inventory.service.InventoryService;
+import com.obs.inventory.service.ItemService;
+import com.obs.inventory.service.OrderService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Regression guard for the insert-only create path: a create must not SELECT its own row
+ * (no existsById, no merge) before the INSERT.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:insert-count;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.obs.inventory.repository.InsertRepositoryStatementCountTest$SqlRecorder",
+        "inventory.checkpoint.enabled=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+class InsertRepositoryStatementCountTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void clear() {
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    @Test
+    @DisplayName("createItem - satu statement INSERT")
+    void createItem_singleInsert() {
+        itemService.createItem(new ItemRequestDto(101, "Pen", BigDecimal.TEN));
+
+        assertThat(SqlRecorder.STATEMENTS).hasSize(1);
+        assertThat(SqlRecorder.STATEMENTS.get(0)).startsWith("insert into items");
+    }
+
+    @Test
+    @DisplayName("createItem - ID duplikat -> ITEM-001 dari constraint, tanpa SELECT")
+    void createItem_duplicate() {
+        itemService.createItem(new ItemRequestDto(102, "Pen", BigDecimal.TEN));
+        SqlRecorder.STATEMENTS.clear();
+
+        assertThatThrownBy(() -> itemService.createItem(new ItemRequestDto(102, "Pencil", BigDecimal.ONE)))
+                .isInstanceOf(ErrorBusinessException.class)
+                .extracting("errorNumber")
+                .isEqualTo("ITEM-001");
+        assertThat(SqlRecorder.STATEMENTS).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("save() untuk id baru masih SELECT + INSERT, sebagai pembanding")
+    void save_selectsBeforeInsert() {
+        itemRepository.save(ItemEntity.builder().id(103).name("Pen").price(BigDecimal.TEN).build());
+
+        assertThat(SqlRecorder.STATEMENTS).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("createInventory / createOrder - satu statement ke tabel masing-masing")
+    void createInventoryAndOrder_singleInsert() {
+        itemService.createItem(new ItemRequestDto(104, "Pen", BigDecimal.TEN));
+        // first movement creates the stock balance row, only the second one is measured
+        inventoryService.createInventory(inventoryRequest(1001));
+        SqlRecorder.STATEMENTS.clear();
+
+        inventoryService.createInventory(inventoryRequest(1002));
+        assertThat(SqlRecorder.touching("inventories")).hasSize(1);
+
+        assertThatThrownBy(() -> inventoryService.createInventory(inventoryRequest(1002)))
+                .isInstanceOf(ErrorBusinessException.class)
+                .extracting("errorNumber")
+                .isEqualTo("INV-001");
+        SqlRecorder.STATEMENTS.clear();
+
+        orderService.createOrder(new OrderRequestDto("O-104", 104, 1L));
+        assertThat(SqlRecorder.touching("orders")).hasSize(1);
+
+        assertThatThrownBy(() -> orderService.createOrder(new OrderRequestDto("O-104", 104, 1L)))
+                .isInstanceOf(ErrorBusinessException.class)
+                .extracting("errorNumber")
+                .isEqualTo("ORD-002");
+    }
+
+    private InventoryRequestDto inventoryRequest(Integer id) {
+        return InventoryRequestDto.builder()
+                .id(id)
+                .itemId(104)
+                .qty(10L)
+                .type("T")
+                .build();
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        static List<String> touching(String table) {
+            return STATEMENTS.stream()
+                    .filter(sql -> sql.contains(" " + table + " ") || sql.endsWith(" " + table))
+                    .toList();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+    }
+}
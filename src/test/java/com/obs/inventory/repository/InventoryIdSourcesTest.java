@@ -0,0 +1,79 @@
+package com.obs.inventory.repository;
+
+import com.obs.inventory.dto.InventoryIngestResultDto;
+import com.obs.inventory.dto.InventoryRequestDto;
+import com.obs.inventory.dto.InventoryResponseDto;
+import com.obs.inventory.dto.ItemRequestDto;
+import com.obs.inventory.entity.InventoryEntity;
+import com.obs.inventory.exception.ErrorBusinessException;
+import com.obs.inventory.service.InventoryService;
+import com.obs.inventory.service.ItemService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Client supplied and generated inventory ids mixed on one ledger: generated ids come from their
+ * own range, so no create without an id ever fails with INV-001 because of a client id.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory-ids;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "inventory.checkpoint.enabled=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+class InventoryIdSourcesTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Test
+    @DisplayName("ID client dan generated bercampur - generated dari range sendiri, tanpa INV-001")
+    void clientAndGeneratedIds_neverCollide() {
+        itemService.createItem(new ItemRequestDto(201, "Pen", BigDecimal.TEN));
+
+        Integer generated = create(null);
+        assertThat(generated).isGreaterThanOrEqualTo(InventoryEntity.GENERATED_ID_FROM);
+
+        // the next ids of the pooled block, a client cannot take them
+        assertThatThrownBy(() -> create(generated + 1))
+                .isInstanceOf(ErrorBusinessException.class)
+                .extracting("errorNumber")
+                .isEqualTo("INV-VAL-001");
+
+        assertThat(create(7)).isEqualTo(7);
+        for (int i = 0; i < InventoryEntity.ID_ALLOCATION_SIZE + 5; i++) {
+            assertThat(create(null)).isGreaterThan(generated);
+        }
+
+        String csv = "1000000001,201,1,T\n8,201,1,T\n,201,1,T\n";
+        InventoryIngestResultDto result = inventoryService.ingestInventories(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "text/csv").getData().get(0);
+
+        assertThat(result.getAccepted()).isEqualTo(2L);
+        assertThat(result.getErrors()).extracting("errorNumber").containsExactly("INV-VAL-001");
+    }
+
+    // ============ HELPER ============
+
+    private Integer create(Integer id) {
+        InventoryResponseDto dto = inventoryService.createInventory(InventoryRequestDto.builder()
+                .id(id)
+                .itemId(201)
+                .qty(1L)
+                .type("T")
+                .build()).getData().get(0);
+        return dto.getId();
+    }
+}
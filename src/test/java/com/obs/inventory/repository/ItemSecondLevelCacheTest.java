@@ -0,0 +1,105 @@
+package com.obs.inventory.repository;
+
+import com.obs.inventory.dto.ItemRequestDto;
+import com.obs.inventory.dto.search.ItemSearchDto;
+import com.obs.inventory.entity.ItemEntity;
+import com.obs.inventory.repository.InsertRepositoryStatementCountTest.SqlRecorder;
+import com.obs.inventory.service.ItemService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regression guard for the second-level cache: repeated item reads, over HTTP and through the
+ * page query, must not reach the items table.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:l2cache;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.obs.inventory.repository.InsertRepositoryStatementCountTest$SqlRecorder",
+        "inventory.checkpoint.enabled=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+class ItemSecondLevelCacheTest {
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("GET /api/v1/items/{id} berulang - entity dari second-level cache, tanpa SQL ke items")
+    void getItem_repeated_noItemSql() throws Exception {
+        itemService.createItem(new ItemRequestDto(501, "Pen", BigDecimal.TEN));
+        // the first read builds the stock balance of the item, only the next ones are measured
+        assertThat(get("/api/v1/items/501").statusCode()).isEqualTo(200);
+        Statistics statistics = statistics();
+        long hits = statistics.getDomainDataRegionStatistics(ItemEntity.CACHE_REGION).getHitCount();
+        SqlRecorder.STATEMENTS.clear();
+
+        for (int i = 0; i < 3; i++) {
+            HttpResponse<String> response = get("/api/v1/items/501");
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.body()).contains("\"name\":\"Pen\"");
+        }
+
+        assertThat(SqlRecorder.touching("items")).isEmpty();
+        assertThat(statistics.getDomainDataRegionStatistics(ItemEntity.CACHE_REGION).getHitCount())
+                .isEqualTo(hits + 3);
+    }
+
+    @Test
+    @DisplayName("getItemsPage berulang - hasil dan count dari query cache, dibuang setelah item diubah")
+    void getItemsPage_repeated_fromQueryCache() {
+        itemService.createItem(new ItemRequestDto(601, "Query Cached Marker", BigDecimal.ONE));
+        ItemSearchDto search = new ItemSearchDto();
+        search.setName("query cached");
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("id"));
+
+        itemService.getItemsPage(search, pageable);
+        SqlRecorder.STATEMENTS.clear();
+
+        assertThat(itemService.getItemsPage(search, pageable).getContent())
+                .extracting("name").containsExactly("Query Cached Marker");
+        assertThat(SqlRecorder.touching("items")).isEmpty();
+
+        itemService.updateItem(new ItemRequestDto(601, "Query Cached Marker 2", BigDecimal.ONE));
+        SqlRecorder.STATEMENTS.clear();
+
+        assertThat(itemService.getItemsPage(search, pageable).getContent())
+                .extracting("name").containsExactly("Query Cached Marker 2");
+        assertThat(SqlRecorder.touching("items")).isNotEmpty();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
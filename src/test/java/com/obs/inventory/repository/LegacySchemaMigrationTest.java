@@ -0,0 +1,81 @@
+package com.obs.inventory.repository;
+
+import com.obs.inventory.service.StockService;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrade path from the release before migrations: a database built by {@code ddl-auto=update}
+ * (items, inventories and orders only, no created_at) is baselined and migrated on startup, and
+ * the context only starts when Hibernate validates the result.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "inventory.checkpoint.enabled=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+class LegacySchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:legacy-schema;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StockService stockService;
+
+    // runs before the context starts, so Flyway finds the old schema
+    @DynamicPropertySource
+    static void legacyDatabase(DynamicPropertyRegistry registry) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(URL);
+        dataSource.setUser("sa");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table items (id integer not null, name varchar(255) not null, " +
+                    "price numeric(38,2) not null, primary key (id))");
+            statement.execute("create table inventories (id integer not null, item_id integer not null, " +
+                    "qty bigint not null, type varchar(1) not null, primary key (id))");
+            statement.execute("create table orders (order_no varchar(255) not null, item_id integer not null, " +
+                    "qty bigint not null, price numeric(38,2) not null, primary key (order_no))");
+            statement.execute("alter table inventories add constraint FK_LEGACY_INV_ITEM " +
+                    "foreign key (item_id) references items");
+            statement.execute("alter table orders add constraint FK_LEGACY_ORD_ITEM " +
+                    "foreign key (item_id) references items");
+
+            statement.execute("insert into items (id, name, price) values (1, 'Pen', 10)");
+            statement.execute("insert into inventories (id, item_id, qty, type) values (1, 1, 10, 't'), (2, 1, 3, 'W')");
+            statement.execute("insert into orders (order_no, item_id, qty, price) values ('O1', 1, 2, 10)");
+        }
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    @DisplayName("database lama ddl-auto=update - baseline di 0, semua migration jalan, data tetap")
+    void legacyDatabase_migratedOnStartup() {
+        assertThat(jdbcTemplate.queryForList(
+                "select \"version\" from \"flyway_schema_history\" where \"success\" order by \"installed_rank\"",
+                String.class)).startsWith("0", "1", "2", "3");
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from information_schema.columns " +
+                "where lower(column_name) = 'created_at' and lower(table_name) in ('inventories', 'orders')",
+                Integer.class)).isEqualTo(2);
+        // V3 normalized the legacy lower-case type code
+        assertThat(jdbcTemplate.queryForObject("select type from inventories where id = 1", String.class))
+                .isEqualTo("T");
+
+        assertThat(stockService.getRemainingStock(1)).isEqualTo(5L);
+    }
+}
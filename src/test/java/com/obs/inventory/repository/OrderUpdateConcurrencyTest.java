@@ -0,0 +1,89 @@
+package com.obs.inventory.repository;
+
+import com.obs.inventory.dto.InventoryRequestDto;
+import com.obs.inventory.dto.ItemRequestDto;
+import com.obs.inventory.dto.OrderRequestDto;
+import com.obs.inventory.service.InventoryService;
+import com.obs.inventory.service.ItemService;
+import com.obs.inventory.service.OrderService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent updates of one order: each update reserves or releases the difference to the qty it
+ * read, so the reads must be serialized or stock_balances drifts away from the ledger.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-race;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "inventory.checkpoint.enabled=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+class OrderUpdateConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private static final int UPDATES_PER_THREAD = 25;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("updateOrder paralel pada order yang sama - stock_balances tetap sama dengan ledger")
+    void concurrentUpdates_balanceMatchesLedger() throws Exception {
+        itemService.createItem(new ItemRequestDto(301, "Pen", BigDecimal.TEN));
+        inventoryService.createInventory(InventoryRequestDto.builder()
+                .itemId(301)
+                .qty(100_000L)
+                .type("T")
+                .build());
+        orderService.createOrder(new OrderRequestDto("O-301", 301, 10L));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<CompletableFuture<Void>> runs = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                runs.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                        long qty = 1 + (thread * UPDATES_PER_THREAD + i) % 50;
+                        orderService.updateOrder(new OrderRequestDto("O-301", 301, qty));
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        Long onHand = jdbcTemplate.queryForObject(
+                "select on_hand from stock_balances where item_id = 301", Long.class);
+        Long ledger = jdbcTemplate.queryForObject(
+                "select (select coalesce(sum(case when type = 'T' then qty else -qty end), 0) " +
+                        "from inventories where item_id = 301) " +
+                        "- (select coalesce(sum(qty), 0) from orders where item_id = 301)", Long.class);
+
+        assertThat(onHand).isEqualTo(ledger);
+    }
+}
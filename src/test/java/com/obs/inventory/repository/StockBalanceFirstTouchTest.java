@@ -0,0 +1,77 @@
+package com.obs.inventory.repository;
+
+import com.obs.inventory.dto.InventoryRequestDto;
+import com.obs.inventory.service.InventoryService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Items without a stock_balances row (written before the table existed, or straight to the items
+ * table) get one on first touch. Concurrent first touches must neither fail on the primary key
+ * nor lose a movement.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:first-touch;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "inventory.checkpoint.enabled=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+class StockBalanceFirstTouchTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("createInventory paralel pada item tanpa balance - satu row balance, semua movement terhitung")
+    void concurrentFirstTouch_noDuplicateKey() {
+        jdbcTemplate.update("insert into items (id, name, price) values (401, 'Pen', 10)");
+        jdbcTemplate.update("insert into inventories (id, item_id, qty, type, created_at) " +
+                "values (1, 401, 100, 'T', current_timestamp)");
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<CompletableFuture<Void>> runs = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                runs.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    inventoryService.createInventory(InventoryRequestDto.builder()
+                            .itemId(401)
+                            .qty(5L)
+                            .type("T")
+                            .build());
+                }, executor));
+            }
+            start.countDown();
+            CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(jdbcTemplate.queryForObject(
+                "select on_hand from stock_balances where item_id = 401", Long.class))
+                .isEqualTo(100L + THREADS * 5L);
+    }
+}
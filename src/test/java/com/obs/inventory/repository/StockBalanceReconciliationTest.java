@@ -0,0 +1,84 @@
+package com.obs.inventory.repository;
+
+import com.obs.inventory.dto.InventoryRequestDto;
+import com.obs.inventory.dto.ItemRequestDto;
+import com.obs.inventory.dto.OrderRequestDto;
+import com.obs.inventory.dto.StockCheckpointResultDto;
+import com.obs.inventory.service.InventoryService;
+import com.obs.inventory.service.ItemService;
+import com.obs.inventory.service.OrderService;
+import com.obs.inventory.service.StockCheckpointService;
+import com.obs.inventory.service.StockService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The checkpoint run compares every stock_balances row with the checkpoint it just rolled forward
+ * (the whole ledger of the item at that point) and sets a drifted row back to it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:balance-reconcile;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "inventory.checkpoint.enabled=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+class StockBalanceReconciliationTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockCheckpointService stockCheckpointService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("createCheckpoints - balance yang diubah di luar ledger dikembalikan ke checkpoint + movement")
+    void createCheckpoints_repairsDriftedBalance() {
+        itemService.createItem(new ItemRequestDto(601, "Pen", BigDecimal.TEN));
+        itemService.createItem(new ItemRequestDto(602, "Book", BigDecimal.TEN));
+        inventoryService.createInventory(InventoryRequestDto.builder().itemId(601).qty(50L).type("T").build());
+        inventoryService.createInventory(InventoryRequestDto.builder().itemId(602).qty(20L).type("T").build());
+        stockCheckpointService.createCheckpoints();
+
+        // movements after the first checkpoint, then on_hand of 601 is overwritten behind the ledger's back
+        inventoryService.createInventory(InventoryRequestDto.builder().itemId(601).qty(5L).type("W").build());
+        orderService.createOrder(new OrderRequestDto("RC-1", 601, 10L));
+        jdbcTemplate.update("update stock_balances set on_hand = 999 where item_id = 601");
+        stockService.rebuildCache();
+        assertThat(stockService.getRemainingStock(601)).isEqualTo(999L);
+
+        StockCheckpointResultDto result = stockCheckpointService.createCheckpoints().getData().get(0);
+
+        assertThat(result.getBalancesRepaired()).isEqualTo(1L);
+        assertThat(onHand(601)).isEqualTo(35L);
+        assertThat(onHand(602)).isEqualTo(20L);
+        assertThat(stockService.getRemainingStock(601)).isEqualTo(35L);
+
+        // nothing left to repair
+        assertThat(stockCheckpointService.createCheckpoints().getData().get(0).getBalancesRepaired()).isZero();
+    }
+
+    // ============ HELPER ============
+
+    private Long onHand(int itemId) {
+        return jdbcTemplate.queryForObject("select on_hand from stock_balances where item_id = ?", Long.class, itemId);
+    }
+}
@@ -0,0 +1,96 @@
+package com.obs.inventory.repository;
+
+import com.obs.inventory.dto.InventoryRequestDto;
+import com.obs.inventory.dto.ItemRequestDto;
+import com.obs.inventory.service.InventoryService;
+import com.obs.inventory.service.ItemService;
+import com.obs.inventory.service.StockCheckpointService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checkpoints taken while movements are being written: a movement either is in the checkpoint or
+ * numbered after it, never lost between two runs, so checkpoint + later rows equals the balance.
+ * The reconciliation of each run must therefore never find a balance to repair.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:checkpoint-race;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "inventory.checkpoint.enabled=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+class StockCheckpointConcurrencyTest {
+
+    private static final int THREADS = 4;
+
+    private static final int MOVEMENTS_PER_THREAD = 50;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StockCheckpointService stockCheckpointService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("checkpoint paralel dengan movement - checkpoint + movement setelahnya sama dengan balance")
+    void checkpointDuringWrites_noMovementLost() {
+        itemService.createItem(new ItemRequestDto(501, "Pen", BigDecimal.TEN));
+        inventoryService.createInventory(InventoryRequestDto.builder().itemId(501).qty(1L).type("T").build());
+
+        long repaired = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<CompletableFuture<Void>> runs = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                runs.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < MOVEMENTS_PER_THREAD; i++) {
+                        inventoryService.createInventory(InventoryRequestDto.builder()
+                                .itemId(501)
+                                .qty(1L)
+                                .type("T")
+                                .build());
+                    }
+                }, executor));
+            }
+            CompletableFuture<Void> writers = CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new));
+            while (!writers.isDone()) {
+                repaired += stockCheckpointService.createCheckpoints().getData().get(0).getBalancesRepaired();
+            }
+            writers.join();
+        } finally {
+            executor.shutdown();
+        }
+
+        stockCheckpointService.createCheckpoints();
+        inventoryService.createInventory(InventoryRequestDto.builder().itemId(501).qty(1L).type("T").build());
+
+        Long onHand = jdbcTemplate.queryForObject(
+                "select on_hand from stock_balances where item_id = 501", Long.class);
+        Long fromCheckpoint = jdbcTemplate.queryForObject(
+                "select c.balance + (select coalesce(sum(case when i.type = 'T' then i.qty else -i.qty end), 0) " +
+                        "from inventories i where i.item_id = c.item_id and i.ledger_seq > c.ledger_seq) " +
+                        "from stock_checkpoints c where c.item_id = 501", Long.class);
+
+        assertThat(onHand).isEqualTo(2L + THREADS * MOVEMENTS_PER_THREAD);
+        assertThat(fromCheckpoint).isEqualTo(onHand);
+        assertThat(repaired).isZero();
+    }
+}
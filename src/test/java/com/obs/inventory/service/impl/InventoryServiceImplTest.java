@@ -1,28 +1,49 @@
 package com.obs.inventory.service.impl;
 
+import com.obs.inventory.cache.ItemCache;
+import com.obs.inventory.dto.InventoryIngestResultDto;
 import com.obs.inventory.dto.InventoryRequestDto;
 import com.obs.inventory.dto.InventoryResponseDto;
+import com.obs.inventory.dto.response.CursorPageDto;
+import com.obs.inventory.dto.response.CursorToken;
 import com.obs.inventory.dto.response.ResponseMessage;
 import com.obs.inventory.dto.search.InventorySearchDto;
 import com.obs.inventory.entity.InventoryEntity;
+import com.obs.inventory.entity.InventoryType;
 import com.obs.inventory.entity.ItemEntity;
 import com.obs.inventory.exception.ErrorBusinessException;
+import com.obs.inventory.repository.ExportRepository;
 import com.obs.inventory.repository.InventoryRepository;
 import com.obs.inventory.repository.ItemRepository;
+import com.obs.inventory.service.StockService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.*;
 
 import org.springframework.data.jpa.domain.Specification;
-
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -37,6 +58,24 @@ class InventoryServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private ExportRepository exportRepository;
+
+    @Mock
+    private StockService stockService;
+
+    @Mock
+    private ItemCache itemCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    // like the context's mapper: unknown properties are ignored
+    @Spy
+    private JsonMapper jsonMapper = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
     @InjectMocks
     private InventoryServiceImpl inventoryService;
 
@@ -55,7 +94,7 @@ class InventoryServiceImplTest {
                 .id(id)
                 .item(item)
                 .qty(qty)
-                .type(type)
+                .type(InventoryType.fromCode(type))
                 .build();
     }
 
@@ -71,18 +110,14 @@ class InventoryServiceImplTest {
     // ========= getInventoriesPage =========
 
     @Test
-    @DisplayName("getInventoriesPage - tanpa filter (hanya pageable)")
+    @DisplayName("getInventoriesPage - tanpa filter (hanya pageable), projection langsung ke DTO")
     void getInventoriesPage_noFilter() {
         InventorySearchDto search = new InventorySearchDto(); // id, itemId, type null
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
 
-        ItemEntity item = buildItem(5, "Shoe", BigDecimal.valueOf(45));
-        InventoryEntity inv = buildInventory(1, item, 5L, "T");
-
-        when(inventoryRepository.findAll(
-                org.mockito.Mockito.<Specification<InventoryEntity>>any(),
-                eq(pageable)
-        )).thenReturn(new PageImpl<>(List.of(inv), pageable, 1));
+        when(inventoryRepository.findProjectedPage(org.mockito.Mockito.<Specification<InventoryEntity>>any(), eq(pageable),
+                eq(InventoryResponseDto.class), any(String[].class)))
+                .thenReturn(new PageImpl<>(List.of(new InventoryResponseDto(1, 5, 5L, InventoryType.TOP_UP)), pageable, 1));
 
         Page<InventoryResponseDto> page = inventoryService.getInventoriesPage(search, pageable);
 
@@ -93,10 +128,9 @@ class InventoryServiceImplTest {
         assertThat(dto.getQty()).isEqualTo(5);
         assertThat(dto.getType()).isEqualTo("T");
 
-        verify(inventoryRepository).findAll(
-                org.mockito.Mockito.<Specification<InventoryEntity>>any(),
-                eq(pageable)
-        );
+        verify(inventoryRepository).findProjectedPage(org.mockito.Mockito.<Specification<InventoryEntity>>any(), eq(pageable),
+                eq(InventoryResponseDto.class), eq("id"), eq("item.id"), eq("qty"), eq("type"));
+        verify(inventoryRepository, never()).findAll(org.mockito.Mockito.<Specification<InventoryEntity>>any(), any(Pageable.class));
     }
 
     @Test
@@ -106,13 +140,9 @@ class InventoryServiceImplTest {
         search.setId(2);
         Pageable pageable = PageRequest.of(0, 10);
 
-        ItemEntity item = buildItem(1, "Pen", BigDecimal.valueOf(5));
-        InventoryEntity inv = buildInventory(2, item, 10L, "T");
-
-        when(inventoryRepository.findAll(
-                org.mockito.Mockito.<Specification<InventoryEntity>>any(),
-                eq(pageable)
-        )).thenReturn(new PageImpl<>(List.of(inv), pageable, 1));
+        when(inventoryRepository.findProjectedPage(org.mockito.Mockito.<Specification<InventoryEntity>>any(), eq(pageable),
+                eq(InventoryResponseDto.class), any(String[].class)))
+                .thenReturn(new PageImpl<>(List.of(new InventoryResponseDto(2, 1, 10L, "T")), pageable, 1));
 
         Page<InventoryResponseDto> page = inventoryService.getInventoriesPage(search, pageable);
 
@@ -127,13 +157,9 @@ class InventoryServiceImplTest {
         search.setItemId(5);
         Pageable pageable = PageRequest.of(0, 10);
 
-        ItemEntity item = buildItem(5, "Shoe", BigDecimal.valueOf(45));
-        InventoryEntity inv = buildInventory(3, item, 45L, "T");
-
-        when(inventoryRepository.findAll(
-                org.mockito.Mockito.<Specification<InventoryEntity>>any(),
-                eq(pageable)
-        )).thenReturn(new PageImpl<>(List.of(inv), pageable, 1));
+        when(inventoryRepository.findProjectedPage(org.mockito.Mockito.<Specification<InventoryEntity>>any(), eq(pageable),
+                eq(InventoryResponseDto.class), any(String[].class)))
+                .thenReturn(new PageImpl<>(List.of(new InventoryResponseDto(3, 5, 45L, "T")), pageable, 1));
 
         Page<InventoryResponseDto> page = inventoryService.getInventoriesPage(search, pageable);
 
@@ -148,13 +174,9 @@ class InventoryServiceImplTest {
         search.setType("t"); // harus diperlakukan sama dengan "T"
         Pageable pageable = PageRequest.of(0, 10);
 
-        ItemEntity item = buildItem(1, "Pen", BigDecimal.valueOf(5));
-        InventoryEntity inv = buildInventory(4, item, 5L, "T");
-
-        when(inventoryRepository.findAll(
-                org.mockito.Mockito.<Specification<InventoryEntity>>any(),
-                eq(pageable)
-        )).thenReturn(new PageImpl<>(List.of(inv), pageable, 1));
+        when(inventoryRepository.findProjectedPage(org.mockito.Mockito.<Specification<InventoryEntity>>any(), eq(pageable),
+                eq(InventoryResponseDto.class), any(String[].class)))
+                .thenReturn(new PageImpl<>(List.of(new InventoryResponseDto(4, 1, 5L, "T")), pageable, 1));
 
         Page<InventoryResponseDto> page = inventoryService.getInventoriesPage(search, pageable);
 
@@ -162,6 +184,123 @@ class InventoryServiceImplTest {
         assertThat(page.getContent().get(0).getType()).isEqualTo("T");
     }
 
+    @Test
+    @DisplayName("getInventoriesPage - filter type tidak dikenal -> INV-VAL-006")
+    void getInventoriesPage_filterByUnknownType() {
+        InventorySearchDto search = new InventorySearchDto();
+        search.setType("X");
+
+        assertThatThrownBy(() -> inventoryService.getInventoriesPage(search, PageRequest.of(0, 10)))
+                .isInstanceOf(ErrorBusinessException.class)
+                .extracting("errorNumber")
+                .isEqualTo("INV-VAL-006");
+
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    @DisplayName("getInventoriesSlice - projection slice tanpa count")
+    void getInventoriesSlice_noCount() {
+        Pageable pageable = PageRequest.of(1, 10);
+
+        when(inventoryRepository.findProjectedSlice(org.mockito.Mockito.<Specification<InventoryEntity>>any(), eq(pageable),
+                eq(InventoryResponseDto.class), any(String[].class)))
+                .thenReturn(new SliceImpl<>(List.of(new InventoryResponseDto(11, 5, 5L, "W")), pageable, false));
+
+        Slice<InventoryResponseDto> slice = inventoryService.getInventoriesSlice(new InventorySearchDto(), pageable);
+
+        assertThat(slice.getContent()).extracting("id", "type").containsExactly(tuple(11, "W"));
+        assertThat(slice.hasNext()).isFalse();
+        verify(inventoryRepository, never()).count(org.mockito.Mockito.<Specification<InventoryEntity>>any());
+    }
+
+    // ========= getInventoriesAfter =========
+
+    @Test
+    @DisplayName("getInventoriesAfter - baris ke size+1 menandakan halaman berikutnya, tanpa count")
+    void getInventoriesAfter_hasNext() {
+        when(inventoryRepository.findProjected(org.mockito.Mockito.<Specification<InventoryEntity>>any(), eq(Sort.by("id")),
+                eq(3), eq(InventoryResponseDto.class), any(String[].class)))
+                .thenReturn(List.of(
+                        new InventoryResponseDto(1, 5, 5L, "T"),
+                        new InventoryResponseDto(2, 5, 5L, "W"),
+                        new InventoryResponseDto(3, 5, 5L, "T")));
+
+        CursorPageDto<InventoryResponseDto> page =
+                inventoryService.getInventoriesAfter(new InventorySearchDto(), null, 2);
+
+        assertThat(page.getContent()).extracting("id").containsExactly(1, 2);
+        assertThat(page.getHasNext()).isTrue();
+        assertThat(CursorToken.decode("inventories", page.getNextCursor(), "X")).isEqualTo("2");
+        verify(inventoryRepository, never()).count(org.mockito.Mockito.<Specification<InventoryEntity>>any());
+    }
+
+    @Test
+    @DisplayName("getInventoriesAfter - halaman terakhir tanpa nextCursor")
+    void getInventoriesAfter_lastPage() {
+        when(inventoryRepository.findProjected(org.mockito.Mockito.<Specification<InventoryEntity>>any(), eq(Sort.by("id")),
+                eq(3), eq(InventoryResponseDto.class), any(String[].class)))
+                .thenReturn(List.of(new InventoryResponseDto(3, 5, 5L, "T")));
+
+        CursorPageDto<InventoryResponseDto> page = inventoryService.getInventoriesAfter(
+                new InventorySearchDto(), CursorToken.encode("inventories", 2), 2);
+
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("getInventoriesAfter - cursor tidak valid -> INV-PAGE-001")
+    void getInventoriesAfter_invalidCursor() {
+        assertThatThrownBy(() -> inventoryService.getInventoriesAfter(
+                new InventorySearchDto(), CursorToken.encode("orders", "O1"), 20))
+                .isInstanceOf(ErrorBusinessException.class)
+                .extracting("errorNumber")
+                .isEqualTo("INV-PAGE-001");
+
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    // ========= exportInventories =========
+
+    @Test
+    @DisplayName("validateInventorySearch - type tidak dikenal -> INV-VAL-006 tanpa query")
+    void validateInventorySearch_unknownType() {
+        InventorySearchDto search = new InventorySearchDto();
+        search.setType("X");
+
+        assertThatThrownBy(() -> inventoryService.validateInventorySearch(search))
+                .isInstanceOf(ErrorBusinessException.class)
+                .extracting("errorNumber")
+                .isEqualTo("INV-VAL-006");
+        verifyNoInteractions(inventoryRepository, exportRepository);
+    }
+
+    @Test
+    @DisplayName("exportInventories - satu baris JSON per row, filter type dinormalisasi")
+    void exportInventories_ndjson() {
+        InventorySearchDto search = new InventorySearchDto();
+        search.setType(" w ");
+        doAnswer(invocation -> {
+            Consumer<InventoryResponseDto> consumer = invocation.getArgument(2);
+            consumer.accept(InventoryResponseDto.builder().id(1).itemId(5).qty(3L).type("W").build());
+            consumer.accept(InventoryResponseDto.builder().id(2).itemId(5).qty(4L).type("W").build());
+            return null;
+        }).when(exportRepository).streamInventories(eq(search), eq(InventoryType.WITHDRAWAL), any());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = inventoryService.exportInventories(search, out);
+
+        assertThat(rows).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n"))
+                .extracting(line -> JsonMapper.builder().build().readValue(line, InventoryResponseDto.class))
+                .extracting(InventoryResponseDto::getId)
+                .containsExactly(1, 2);
+        verify(jsonMapper, times(2)).writeValueAsBytes(any(InventoryResponseDto.class));
+        verifyNoInteractions(inventoryRepository);
+    }
+
     // ========= getInventory =========
 
     @Test
@@ -209,9 +348,8 @@ class InventoryServiceImplTest {
 
         ItemEntity item = buildItem(5, "Shoe", BigDecimal.valueOf(45));
 
-        when(inventoryRepository.existsById("1")).thenReturn(false);
         when(itemRepository.findById("5")).thenReturn(Optional.of(item));
-        when(inventoryRepository.save(any(InventoryEntity.class)))
+        when(inventoryRepository.persistAndFlush(any(InventoryEntity.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
         ResponseMessage<InventoryResponseDto> resp = inventoryService.createInventory(req);
@@ -227,8 +365,44 @@ class InventoryServiceImplTest {
         assertThat(dto.getType()).isEqualTo("T"); // harus sudah uppercase
 
         ArgumentCaptor<InventoryEntity> captor = ArgumentCaptor.forClass(InventoryEntity.class);
-        verify(inventoryRepository).save(captor.capture());
-        assertThat(captor.getValue().getType()).isEqualTo("T");
+        verify(inventoryRepository).persistAndFlush(captor.capture());
+        assertThat(captor.getValue().getType()).isEqualTo(InventoryType.TOP_UP);
+
+        verify(stockService).adjustStock(5, 10L);
+        verify(itemCache).put(eq(5), eq(BigDecimal.valueOf(45)), anyLong());
+    }
+
+    @Test
+    @DisplayName("createInventory - item ada di cache -> getReferenceById, tanpa SELECT item")
+    void createInventory_itemCached() {
+        InventoryRequestDto req = buildRequest(1, 5, 10L, "T");
+
+        when(itemCache.getPrice(5)).thenReturn(Optional.of(BigDecimal.valueOf(45)));
+        when(itemRepository.getReferenceById("5")).thenReturn(buildItem(5, null, null));
+        when(inventoryRepository.persistAndFlush(any(InventoryEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ResponseMessage<InventoryResponseDto> resp = inventoryService.createInventory(req);
+
+        assertThat(resp.getData().get(0).getItemId()).isEqualTo(5);
+        verify(itemRepository, never()).findById(anyString());
+        verify(stockService).adjustStock(5, 10L);
+    }
+
+    @Test
+    @DisplayName("createInventory - withdrawal mengurangi stock balance")
+    void createInventory_withdrawalAdjustsStock() {
+        InventoryRequestDto req = buildRequest(2, 5, 4L, "w");
+
+        ItemEntity item = buildItem(5, "Shoe", BigDecimal.valueOf(45));
+
+        when(itemRepository.findById("5")).thenReturn(Optional.of(item));
+        when(inventoryRepository.persistAndFlush(any(InventoryEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        inventoryService.createInventory(req);
+
+        verify(stockService).adjustStock(5, -4L);
     }
 
     @Test
@@ -236,7 +410,10 @@ class InventoryServiceImplTest {
     void createInventory_idAlreadyExists() {
         InventoryRequestDto req = buildRequest(1, 5, 10L, "T");
 
-        when(inventoryRepository.existsById("1")).thenReturn(true);
+        ItemEntity item = buildItem(5, "Shoe", BigDecimal.valueOf(45));
+        when(itemRepository.findById("5")).thenReturn(Optional.of(item));
+        when(inventoryRepository.persistAndFlush(any(InventoryEntity.class)))
+                .thenThrow(new DuplicateKeyException("PRIMARY KEY ON INVENTORIES(ID)"));
 
         assertThatThrownBy(() -> inventoryService.createInventory(req))
                 .isInstanceOf(ErrorBusinessException.class)
@@ -245,12 +422,23 @@ class InventoryServiceImplTest {
                 .isEqualTo("INV-001");
     }
 
+    @Test
+    @DisplayName("createInventory - ID client di range generated -> INV-VAL-001")
+    void createInventory_idInGeneratedRange() {
+        InventoryRequestDto req = buildRequest(InventoryEntity.GENERATED_ID_FROM, 5, 10L, "T");
+
+        assertThatThrownBy(() -> inventoryService.createInventory(req))
+                .isInstanceOf(ErrorBusinessException.class)
+                .extracting("errorNumber")
+                .isEqualTo("INV-VAL-001");
+        verifyNoInteractions(stockService, inventoryRepository);
+    }
+
     @Test
     @DisplayName("createInventory - item tidak ditemukan -> INV-ITEM-404")
     void createInventory_itemNotFound() {
         InventoryRequestDto req = buildRequest(1, 5, 10L, "T");
 
-        when(inventoryRepository.existsById("1")).thenReturn(false);
         when(itemRepository.findById("5")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> inventoryService.createInventory(req))
@@ -258,6 +446,94 @@ class InventoryServiceImplTest {
                 .hasMessageContaining("Item not found")
                 .extracting("errorNumber")
                 .isEqualTo("INV-ITEM-404");
+
+        verifyNoInteractions(stockService);
+    }
+
+    // ========= ingestInventories =========
+
+    private InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void runTransactionCallbacks() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("ingestInventories - CSV, batch per 2 baris, hasil diterima dan ditolak per baris")
+    void ingestInventories_csv() {
+        ReflectionTestUtils.setField(inventoryService, "ingestBatchSize", 2);
+        ReflectionTestUtils.setField(inventoryService, "maxReportedErrors", 10);
+        runTransactionCallbacks();
+
+        ItemEntity item = buildItem(5, "Shoe", BigDecimal.valueOf(45));
+        when(inventoryRepository.findExistingIds(anyCollection())).thenReturn(List.of(3));
+        when(itemRepository.findByIdIn(anyCollection())).thenReturn(List.of(item));
+
+        String csv = "id,itemId,qty,type\n" +
+                "1,5,10,t\n" +     // line 2 sukses
+                "2,5,4,W\n" +      // line 3 sukses
+                "3,5,1,T\n" +      // line 4 id sudah ada
+                "4,9,1,T\n" +      // line 5 item tidak ada
+                "5,5,1,X\n" +      // line 6 type invalid
+                "abc,5,1,T\n";     // line 7 format salah
+
+        ResponseMessage<InventoryIngestResultDto> resp = inventoryService.ingestInventories(body(csv), "text/csv");
+
+        InventoryIngestResultDto result = resp.getData().get(0);
+        assertThat(result.getAccepted()).isEqualTo(2L);
+        assertThat(result.getRejected()).isEqualTo(4L);
+        assertThat(result.getBatches()).isEqualTo(2);
+        assertThat(result.getErrors())
+                .extracting("line", "errorNumber")
+                .containsExactlyInAnyOrder(
+                        tuple(4, "INV-001"),
+                        tuple(5, "INV-ITEM-404"),
+                        tuple(6, "INV-VAL-006"),
+                        tuple(7, "INV-ING-001"));
+
+        // batch pertama: +10 - 4 untuk item 5 dalam satu adjust
+        verify(stockService).adjustStock(5, 6L);
+        verify(inventoryRepository).persistAll(argThat((Collection<InventoryEntity> rows) -> rows.size() == 2));
+        verify(inventoryRepository, never()).existsById(anyString());
+        verify(inventoryRepository, never()).save(any(InventoryEntity.class));
+    }
+
+    @Test
+    @DisplayName("ingestInventories - NDJSON, dibaca dengan JsonMapper aplikasi (property asing diabaikan)")
+    void ingestInventories_ndjson() {
+        ReflectionTestUtils.setField(inventoryService, "ingestBatchSize", 100);
+        ReflectionTestUtils.setField(inventoryService, "maxReportedErrors", 10);
+        runTransactionCallbacks();
+
+        ItemEntity item = buildItem(5, "Shoe", BigDecimal.valueOf(45));
+        when(inventoryRepository.findExistingIds(anyCollection())).thenReturn(List.of());
+        when(itemRepository.findByIdIn(anyCollection())).thenReturn(List.of(item));
+
+        String ndjson = "{\"id\":1,\"itemId\":5,\"qty\":10,\"type\":\"T\"}\n" +
+                "\n" +
+                "{\"id\":2,\"itemId\":5,\"qty\":3,\"type\":\"w\",\"source\":\"pos\"}\n" +
+                "{\"itemId\":5,\"qty\":2,\"type\":\"T\"}\n" +    // id dari sequence
+                "{\"itemId\":5,\"qty\":1,\"type\":\"T\"}\n";
+
+        ResponseMessage<InventoryIngestResultDto> resp =
+                inventoryService.ingestInventories(body(ndjson), "application/x-ndjson");
+
+        assertThat(resp.getData().get(0).getAccepted()).isEqualTo(4L);
+        assertThat(resp.getData().get(0).getRejected()).isZero();
+        verify(stockService).adjustStock(5, 10L);
+        verify(inventoryRepository).findExistingIds(Set.of(1, 2));
+    }
+
+    @Test
+    @DisplayName("ingestInventories - content type tidak didukung -> INV-ING-000")
+    void ingestInventories_unsupportedContentType() {
+        assertThatThrownBy(() -> inventoryService.ingestInventories(body("{}"), "application/json"))
+                .isInstanceOf(ErrorBusinessException.class)
+                .extracting("errorNumber")
+                .isEqualTo("INV-ING-000");
     }
 
     // ========= deleteInventory =========
@@ -274,6 +550,8 @@ class InventoryServiceImplTest {
 
         assertThat(resp.getIsError()).isFalse();
         assertThat(resp.getMessage()).isEqualTo("Inventory deleted successfully");
+        verify(stockService).adjustStock(5, -45L);
+        verify(stockService).invalidateCheckpoint(5);
         verify(inventoryRepository).delete(inv);
     }
 
@@ -290,15 +568,24 @@ class InventoryServiceImplTest {
     }
 
     @Test
-    @DisplayName("validateInventoryRequest - id null -> INV-VAL-001")
-    void createInventory_idNull() {
+    @DisplayName("createInventory - id null -> id dari sequence")
+    void createInventory_idNull_generated() {
         InventoryRequestDto req = buildRequest(null, 5, 10L, "T");
 
-        assertThatThrownBy(() -> inventoryService.createInventory(req))
-                .isInstanceOf(ErrorBusinessException.class)
-                .hasMessageContaining("Inventory ID is required")
-                .extracting("errorNumber")
-                .isEqualTo("INV-VAL-001");
+        ItemEntity item = buildItem(5, "Shoe", BigDecimal.valueOf(45));
+
+        when(itemRepository.findById("5")).thenReturn(Optional.of(item));
+        when(inventoryRepository.persistAndFlush(any(InventoryEntity.class)))
+                .thenAnswer(invocation -> {
+                    InventoryEntity entity = invocation.getArgument(0);
+                    entity.setId(51);
+                    return entity;
+                });
+
+        ResponseMessage<InventoryResponseDto> resp = inventoryService.createInventory(req);
+
+        assertThat(resp.getData().get(0).getId()).isEqualTo(51);
+        verify(stockService).adjustStock(5, 10L);
     }
 
     @Test
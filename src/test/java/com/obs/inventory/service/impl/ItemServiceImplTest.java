@@ -1,5 +1,7 @@
 package com.obs.inventory.service.impl;
 
+import com.obs.inventory.cache.ItemCache;
+import com.obs.inventory.cache.ItemNameIndex;
 import com.obs.inventory.dto.ItemRequestDto;
 import com.obs.inventory.dto.ItemResponseDto;
 import com.obs.inventory.dto.response.ResponseMessage;
@@ -16,13 +18,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -37,6 +45,12 @@ class ItemServiceImplTest {
     @Mock
     private StockService stockService;
 
+    @Mock
+    private ItemNameIndex itemNameIndex;
+
+    @Mock
+    private ItemCache itemCache;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -71,7 +85,7 @@ class ItemServiceImplTest {
         when(itemRepository.findAll(Mockito.<Specification<ItemEntity>>any(), eq(pageable)))
                 .thenReturn(new PageImpl<>(List.of(entity), pageable, 1));
 
-        when(stockService.getRemainingStock(1)).thenReturn(10L);
+        when(stockService.getRemainingStock(List.of(1))).thenReturn(Map.of(1, 10L));
 
         Page<ItemResponseDto> page = itemService.getItemsPage(search, pageable);
 
@@ -83,6 +97,51 @@ class ItemServiceImplTest {
         assertThat(dto.getRemainingStock()).isEqualTo(10L);
 
         verify(itemRepository).findAll(Mockito.<Specification<ItemEntity>>any(), eq(pageable));
+        verify(stockService, never()).getRemainingStock(anyInt());
+    }
+
+    @Test
+    @DisplayName("getItemsPage - stock seluruh halaman diambil sekali (tanpa N+1)")
+    void getItemsPage_bulkStockLookup() {
+        ItemSearchDto search = new ItemSearchDto();
+        Pageable pageable = PageRequest.of(0, 10);
+
+        ItemEntity pen = buildItem(1, "Pen", BigDecimal.valueOf(5));
+        ItemEntity book = buildItem(2, "Book", BigDecimal.TEN);
+        ItemEntity bag = buildItem(3, "Bag", BigDecimal.valueOf(30));
+
+        when(itemRepository.findAll(Mockito.<Specification<ItemEntity>>any(), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(pen, book, bag), pageable, 3));
+        when(stockService.getRemainingStock(List.of(1, 2, 3))).thenReturn(Map.of(1, 10L, 2, 20L));
+
+        Page<ItemResponseDto> page = itemService.getItemsPage(search, pageable);
+
+        assertThat(page.getContent())
+                .extracting(ItemResponseDto::getRemainingStock)
+                .containsExactly(10L, 20L, 0L);
+
+        verify(stockService).getRemainingStock(List.of(1, 2, 3));
+        verify(stockService, never()).getRemainingStock(anyInt());
+    }
+
+    @Test
+    @DisplayName("getItemsSlice - tanpa count, stock halaman tetap diambil sekali")
+    void getItemsSlice_noCount() {
+        ItemSearchDto search = new ItemSearchDto();
+        Pageable pageable = PageRequest.of(0, 1);
+
+        ItemEntity pen = buildItem(1, "Pen", BigDecimal.valueOf(5));
+
+        when(itemRepository.findSlice(Mockito.<Specification<ItemEntity>>any(), eq(pageable)))
+                .thenReturn(new SliceImpl<>(List.of(pen), pageable, true));
+        when(stockService.getRemainingStock(List.of(1))).thenReturn(Map.of(1, 10L));
+
+        Slice<ItemResponseDto> slice = itemService.getItemsSlice(search, pageable);
+
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(slice.getContent().get(0).getRemainingStock()).isEqualTo(10L);
+        verify(itemRepository, never()).findAll(Mockito.<Specification<ItemEntity>>any(), any(Pageable.class));
+        verify(itemRepository, never()).count(Mockito.<Specification<ItemEntity>>any());
     }
 
     @Test
@@ -101,6 +160,7 @@ class ItemServiceImplTest {
         assertThat(page.getContent()).isEmpty();
 
         verify(stockService, never()).getRemainingStock(anyInt());
+        verify(stockService, never()).getRemainingStock(anyCollection());
     }
 
     @Test
@@ -113,7 +173,7 @@ class ItemServiceImplTest {
         ItemEntity entity = buildItem(2, "Book", BigDecimal.TEN);
         when(itemRepository.findAll(Mockito.<Specification<ItemEntity>>any(), eq(pageable)))
                 .thenReturn(new PageImpl<>(List.of(entity), pageable, 1));
-        when(stockService.getRemainingStock(2)).thenReturn(20L);
+        when(stockService.getRemainingStock(List.of(2))).thenReturn(Map.of(2, 20L));
 
         Page<ItemResponseDto> page = itemService.getItemsPage(search, pageable);
 
@@ -131,7 +191,7 @@ class ItemServiceImplTest {
         ItemEntity entity = buildItem(1, "Pen", BigDecimal.valueOf(5));
         when(itemRepository.findAll(Mockito.<Specification<ItemEntity>>any(), eq(pageable)))
                 .thenReturn(new PageImpl<>(List.of(entity), pageable, 1));
-        when(stockService.getRemainingStock(1)).thenReturn(5L);
+        when(stockService.getRemainingStock(List.of(1))).thenReturn(Map.of(1, 5L));
 
         Page<ItemResponseDto> page = itemService.getItemsPage(search, pageable);
 
@@ -151,7 +211,7 @@ class ItemServiceImplTest {
         ItemEntity entity = buildItem(3, "Bag", BigDecimal.valueOf(30));
         when(itemRepository.findAll(Mockito.<Specification<ItemEntity>>any(), eq(pageable)))
                 .thenReturn(new PageImpl<>(List.of(entity), pageable, 1));
-        when(stockService.getRemainingStock(3)).thenReturn(30L);
+        when(stockService.getRemainingStock(List.of(3))).thenReturn(Map.of(3, 30L));
 
         Page<ItemResponseDto> page = itemService.getItemsPage(search, pageable);
 
@@ -161,6 +221,37 @@ class ItemServiceImplTest {
         assertThat(dto.getName()).isEqualTo("Bag");
     }
 
+    @Test
+    @DisplayName("getItemETag - berubah jika item atau versi stock berubah, tanpa menghitung stock")
+    void getItemETag_changesWithItemAndStock() {
+        when(itemRepository.findById("1"))
+                .thenReturn(Optional.of(buildItem(1, "Pen", new BigDecimal("5.00"))))
+                .thenReturn(Optional.of(buildItem(1, "Pen", new BigDecimal("5.00"))))
+                .thenReturn(Optional.of(buildItem(1, "Pen", new BigDecimal("6.00"))));
+        when(stockService.getStockVersion(1)).thenReturn(3L, 4L, 4L);
+
+        String first = itemService.getItemETag(1);
+        String stockChanged = itemService.getItemETag(1);
+        String priceChanged = itemService.getItemETag(1);
+
+        assertThat(first).endsWith("-3");
+        assertThat(stockChanged).isNotEqualTo(first).endsWith("-4");
+        assertThat(priceChanged).isNotEqualTo(stockChanged).endsWith("-4");
+        verify(stockService, never()).getRemainingStock(anyInt());
+    }
+
+    @Test
+    @DisplayName("getItemETag - item tidak ditemukan -> ITEM-404")
+    void getItemETag_notFound() {
+        when(itemRepository.findById("99")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> itemService.getItemETag(99))
+                .isInstanceOf(ErrorBusinessException.class)
+                .extracting("errorNumber")
+                .isEqualTo("ITEM-404");
+        verifyNoInteractions(stockService);
+    }
+
     @Test
     @DisplayName("getItem - item tidak ditemukan -> ITEM-404")
     void getItem_notFound() {
@@ -180,10 +271,8 @@ class ItemServiceImplTest {
     void createItem_success() {
         ItemRequestDto req = buildRequest(1, "Pen", BigDecimal.valueOf(5));
 
-        when(itemRepository.existsById("1")).thenReturn(false);
-        when(itemRepository.save(any(ItemEntity.class)))
+        when(itemRepository.persistAndFlush(any(ItemEntity.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
-        when(stockService.getRemainingStock(1)).thenReturn(5L);
 
         ResponseMessage<ItemResponseDto> resp = itemService.createItem(req);
 
@@ -195,23 +284,29 @@ class ItemServiceImplTest {
         assertThat(dto.getId()).isEqualTo(1);
         assertThat(dto.getName()).isEqualTo("Pen");
         assertThat(dto.getPrice()).isEqualTo(BigDecimal.valueOf(5));
+        assertThat(dto.getRemainingStock()).isZero();
 
         ArgumentCaptor<ItemEntity> entityCaptor = ArgumentCaptor.forClass(ItemEntity.class);
-        verify(itemRepository).save(entityCaptor.capture());
+        verify(itemRepository).persistAndFlush(entityCaptor.capture());
         assertThat(entityCaptor.getValue().getId()).isEqualTo(1);
+        verify(itemRepository, never()).existsById(anyString());
+        verifyNoInteractions(stockService);
+        verify(itemNameIndex).put(1, "Pen");
     }
 
     @Test
     @DisplayName("createItem - ID sudah ada -> ErrorBusinessException ITEM-001")
     void createItem_idAlreadyExists() {
         ItemRequestDto req = buildRequest(1, "Pen", BigDecimal.valueOf(5));
-        when(itemRepository.existsById("1")).thenReturn(true);
+        when(itemRepository.persistAndFlush(any(ItemEntity.class)))
+                .thenThrow(new DuplicateKeyException("PRIMARY KEY ON ITEMS(ID)"));
 
         assertThatThrownBy(() -> itemService.createItem(req))
                 .isInstanceOf(ErrorBusinessException.class)
                 .hasMessageContaining("Item ID already exists")
                 .extracting("errorNumber")
                 .isEqualTo("ITEM-001");
+        verifyNoInteractions(itemNameIndex);
     }
 
     @Test
@@ -231,6 +326,8 @@ class ItemServiceImplTest {
         ItemResponseDto dto = resp.getData().get(0);
         assertThat(dto.getName()).isEqualTo("Pen Baru");
         assertThat(dto.getPrice()).isEqualTo(BigDecimal.valueOf(7));
+        verify(itemNameIndex).put(1, "Pen Baru");
+        verify(itemCache).invalidate(1);
     }
 
     @Test
@@ -244,6 +341,52 @@ class ItemServiceImplTest {
         assertThat(resp.getIsError()).isFalse();
         assertThat(resp.getMessage()).isEqualTo("Item deleted successfully");
         verify(itemRepository).delete(existing);
+        verify(itemNameIndex).remove(1);
+        verify(itemCache).invalidate(1);
+    }
+
+    // ---------- searchItemIds / name index ----------
+
+    @Test
+    @DisplayName("searchItemIds - id dari index, limit dibatasi maksimal 100")
+    void searchItemIds_fromIndex() {
+        when(itemNameIndex.search("pen", 100)).thenReturn(List.of(3, 1));
+
+        ResponseMessage<Integer> resp = itemService.searchItemIds("pen", 5000);
+
+        assertThat(resp.getIsError()).isFalse();
+        assertThat(resp.getData()).containsExactly(3, 1);
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    @DisplayName("searchItemIds - term kosong -> ITEM-SRCH-001")
+    void searchItemIds_blankTerm() {
+        assertThatThrownBy(() -> itemService.searchItemIds("  ", 20))
+                .isInstanceOf(ErrorBusinessException.class)
+                .extracting("errorNumber")
+                .isEqualTo("ITEM-SRCH-001");
+
+        verifyNoInteractions(itemNameIndex);
+    }
+
+    @Test
+    @DisplayName("rebuildNameIndex - index baru diisi dari tabel items lewat rebuild, bukan clear + put")
+    void rebuildNameIndex_reloadsFromRepository() {
+        when(itemRepository.streamIdAndName())
+                .thenReturn(Stream.of(new Object[]{1, "Pen"}, new Object[]{2, "Book"}));
+        when(itemNameIndex.size()).thenReturn(2);
+        Map<Integer, String> loaded = new LinkedHashMap<>();
+        doAnswer(invocation -> {
+            invocation.<Consumer<BiConsumer<Integer, String>>>getArgument(0).accept(loaded::put);
+            return null;
+        }).when(itemNameIndex).rebuild(any());
+
+        ResponseMessage<Integer> resp = itemService.rebuildNameIndex();
+
+        assertThat(resp.getData()).containsExactly(2);
+        assertThat(loaded).containsExactly(Map.entry(1, "Pen"), Map.entry(2, "Book"));
+        verify(itemNameIndex, never()).put(anyInt(), anyString());
     }
 
     // ---------- validateItemRequest branches (via createItem) ----------
@@ -1,28 +1,42 @@
 package com.obs.inventory.service.impl;
 
+import com.obs.inventory.cache.ItemCache;
+import com.obs.inventory.dto.OrderBulkLineDto;
 import com.obs.inventory.dto.OrderRequestDto;
 import com.obs.inventory.dto.OrderResponseDto;
+import com.obs.inventory.dto.response.CursorPageDto;
+import com.obs.inventory.dto.response.CursorToken;
 import com.obs.inventory.dto.response.ResponseMessage;
 import com.obs.inventory.dto.search.OrderSearchDto;
 import com.obs.inventory.entity.ItemEntity;
 import com.obs.inventory.entity.OrderEntity;
 import com.obs.inventory.exception.ErrorBusinessException;
+import com.obs.inventory.metrics.InventoryMetrics;
+import com.obs.inventory.repository.ExportRepository;
 import com.obs.inventory.repository.ItemRepository;
 import com.obs.inventory.repository.OrderRepository;
 import com.obs.inventory.service.StockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -37,9 +51,21 @@ class OrderServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private ExportRepository exportRepository;
+
     @Mock
     private StockService stockService;
 
+    @Mock
+    private ItemCache itemCache;
+
+    @Spy
+    private InventoryMetrics inventoryMetrics = new InventoryMetrics(new SimpleMeterRegistry());
+
+    @Spy
+    private JsonMapper jsonMapper = JsonMapper.builder().build();
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -73,16 +99,14 @@ class OrderServiceImplTest {
     // ===== getOrdersPages =====
 
     @Test
-    @DisplayName("getOrdersPages - tanpa filter (hanya pageable)")
+    @DisplayName("getOrdersPages - tanpa filter (hanya pageable), projection langsung ke DTO")
     void getOrdersPages_noFilter() {
         OrderSearchDto search = new OrderSearchDto(); // orderNo & itemId null
         Pageable pageable = PageRequest.of(0, 10, Sort.by("orderNo"));
 
-        ItemEntity item = buildItem(1, "Pen", BigDecimal.valueOf(5));
-        OrderEntity entity = buildOrder("O1", item, 2L, BigDecimal.valueOf(5));
-
-        when(orderRepository.findAll(org.mockito.Mockito.<Specification<OrderEntity>>any(), eq(pageable)))
-                .thenReturn(new PageImpl<>(List.of(entity), pageable, 1));
+        when(orderRepository.findProjectedPage(org.mockito.Mockito.<Specification<OrderEntity>>any(), eq(pageable),
+                eq(OrderResponseDto.class), any(String[].class)))
+                .thenReturn(new PageImpl<>(List.of(new OrderResponseDto("O1", 1, 2L, BigDecimal.valueOf(5))), pageable, 1));
 
         Page<OrderResponseDto> page = orderService.getOrdersPages(search, pageable);
 
@@ -93,7 +117,9 @@ class OrderServiceImplTest {
         assertThat(dto.getQty()).isEqualTo(2);
         assertThat(dto.getPrice()).isEqualTo(BigDecimal.valueOf(5));
 
-        verify(orderRepository).findAll(org.mockito.Mockito.<Specification<OrderEntity>>any(), eq(pageable));
+        verify(orderRepository).findProjectedPage(org.mockito.Mockito.<Specification<OrderEntity>>any(), eq(pageable),
+                eq(OrderResponseDto.class), eq("orderNo"), eq("item.id"), eq("qty"), eq("price"));
+        verify(orderRepository, never()).findAll(org.mockito.Mockito.<Specification<OrderEntity>>any(), any(Pageable.class));
     }
 
     @Test
@@ -103,11 +129,9 @@ class OrderServiceImplTest {
         search.setOrderNo("O2");
         Pageable pageable = PageRequest.of(0, 10);
 
-        ItemEntity item = buildItem(2, "Book", BigDecimal.TEN);
-        OrderEntity entity = buildOrder("O2", item, 3L, BigDecimal.TEN);
-
-        when(orderRepository.findAll(org.mockito.Mockito.<Specification<OrderEntity>>any(), eq(pageable)))
-                .thenReturn(new PageImpl<>(List.of(entity), pageable, 1));
+        when(orderRepository.findProjectedPage(org.mockito.Mockito.<Specification<OrderEntity>>any(), eq(pageable),
+                eq(OrderResponseDto.class), any(String[].class)))
+                .thenReturn(new PageImpl<>(List.of(new OrderResponseDto("O2", 2, 3L, BigDecimal.TEN)), pageable, 1));
 
         Page<OrderResponseDto> page = orderService.getOrdersPages(search, pageable);
 
@@ -116,17 +140,16 @@ class OrderServiceImplTest {
     }
 
     @Test
-    @DisplayName("getOrdersPages - filter hanya itemId")
+    @DisplayName("getOrdersPages - filter hanya itemId, orderNo kosong diabaikan")
     void getOrdersPages_filterByItemId() {
         OrderSearchDto search = new OrderSearchDto();
+        search.setOrderNo(" ");
         search.setItemId(3);
         Pageable pageable = PageRequest.of(0, 10);
 
-        ItemEntity item = buildItem(3, "Bag", BigDecimal.valueOf(30));
-        OrderEntity entity = buildOrder("O3", item, 4L, BigDecimal.valueOf(30));
-
-        when(orderRepository.findAll(org.mockito.Mockito.<Specification<OrderEntity>>any(), eq(pageable)))
-                .thenReturn(new PageImpl<>(List.of(entity), pageable, 1));
+        when(orderRepository.findProjectedPage(org.mockito.Mockito.<Specification<OrderEntity>>any(), eq(pageable),
+                eq(OrderResponseDto.class), any(String[].class)))
+                .thenReturn(new PageImpl<>(List.of(new OrderResponseDto("O3", 3, 4L, BigDecimal.valueOf(30))), pageable, 1));
 
         Page<OrderResponseDto> page = orderService.getOrdersPages(search, pageable);
 
@@ -142,11 +165,9 @@ class OrderServiceImplTest {
         search.setItemId(4);
 
         Pageable pageable = PageRequest.of(0, 10);
-        ItemEntity item = buildItem(4, "Pencil", BigDecimal.valueOf(3));
-        OrderEntity entity = buildOrder("O4", item, 1L, BigDecimal.valueOf(3));
-
-        when(orderRepository.findAll(org.mockito.Mockito.<Specification<OrderEntity>>any(), eq(pageable)))
-                .thenReturn(new PageImpl<>(List.of(entity), pageable, 1));
+        when(orderRepository.findProjectedPage(org.mockito.Mockito.<Specification<OrderEntity>>any(), eq(pageable),
+                eq(OrderResponseDto.class), any(String[].class)))
+                .thenReturn(new PageImpl<>(List.of(new OrderResponseDto("O4", 4, 1L, BigDecimal.valueOf(3))), pageable, 1));
 
         Page<OrderResponseDto> page = orderService.getOrdersPages(search, pageable);
 
@@ -156,6 +177,76 @@ class OrderServiceImplTest {
         assertThat(dto.getItemId()).isEqualTo(4);
     }
 
+    @Test
+    @DisplayName("getOrdersSlice - projection slice tanpa count")
+    void getOrdersSlice_noCount() {
+        Pageable pageable = PageRequest.of(0, 1);
+
+        when(orderRepository.findProjectedSlice(org.mockito.Mockito.<Specification<OrderEntity>>any(), eq(pageable),
+                eq(OrderResponseDto.class), any(String[].class)))
+                .thenReturn(new SliceImpl<>(List.of(new OrderResponseDto("O1", 1, 2L, BigDecimal.valueOf(5))), pageable, true));
+
+        Slice<OrderResponseDto> slice = orderService.getOrdersSlice(new OrderSearchDto(), pageable);
+
+        assertThat(slice.getContent()).extracting("orderNo").containsExactly("O1");
+        assertThat(slice.hasNext()).isTrue();
+        verify(orderRepository, never()).count(org.mockito.Mockito.<Specification<OrderEntity>>any());
+    }
+
+    // ===== getOrdersAfter =====
+
+    @Test
+    @DisplayName("getOrdersAfter - seek setelah orderNo terakhir, baris ke size+1 -> nextCursor")
+    void getOrdersAfter_hasNext() {
+        when(orderRepository.findProjected(org.mockito.Mockito.<Specification<OrderEntity>>any(), eq(Sort.by("orderNo")),
+                eq(2), eq(OrderResponseDto.class), any(String[].class)))
+                .thenReturn(List.of(
+                        new OrderResponseDto("O2", 1, 1L, BigDecimal.valueOf(5)),
+                        new OrderResponseDto("O3", 1, 1L, BigDecimal.valueOf(5))));
+
+        CursorPageDto<OrderResponseDto> page = orderService.getOrdersAfter(
+                new OrderSearchDto(), CursorToken.encode("orders", "O1"), 1);
+
+        assertThat(page.getContent()).extracting("orderNo").containsExactly("O2");
+        assertThat(page.getHasNext()).isTrue();
+        assertThat(CursorToken.decode("orders", page.getNextCursor(), "X")).isEqualTo("O2");
+    }
+
+    @Test
+    @DisplayName("getOrdersAfter - cursor bukan base64 -> ORD-PAGE-001")
+    void getOrdersAfter_invalidCursor() {
+        assertThatThrownBy(() -> orderService.getOrdersAfter(new OrderSearchDto(), "%%%", 20))
+                .isInstanceOf(ErrorBusinessException.class)
+                .extracting("errorNumber")
+                .isEqualTo("ORD-PAGE-001");
+    }
+
+    // ===== exportOrders =====
+
+    @Test
+    @DisplayName("exportOrders - satu baris JSON per order")
+    void exportOrders_ndjson() {
+        OrderSearchDto search = new OrderSearchDto();
+        search.setItemId(1);
+        doAnswer(invocation -> {
+            Consumer<OrderResponseDto> consumer = invocation.getArgument(1);
+            consumer.accept(OrderResponseDto.builder().orderNo("O1").itemId(1).qty(2L).price(BigDecimal.valueOf(5)).build());
+            return null;
+        }).when(exportRepository).streamOrders(eq(search), any());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = orderService.exportOrders(search, out);
+
+        assertThat(rows).isEqualTo(1);
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n").doesNotContain("\n{");
+        assertThat(JsonMapper.builder().build().readValue(body.trim(), OrderResponseDto.class))
+                .extracting(OrderResponseDto::getOrderNo, OrderResponseDto::getQty)
+                .containsExactly("O1", 2L);
+        verify(jsonMapper).writeValueAsBytes(any(OrderResponseDto.class));
+        verifyNoInteractions(orderRepository);
+    }
+
     // ===== getOrder =====
 
     @Test
@@ -178,6 +269,16 @@ class OrderServiceImplTest {
         assertThat(dto.getPrice()).isEqualTo(BigDecimal.valueOf(5));
     }
 
+    @Test
+    @DisplayName("getOrderETag - stabil untuk order yang sama, berubah jika qty berubah")
+    void getOrderETag_changesWithOrder() {
+        String first = orderService.getOrderETag(new OrderResponseDto("O1", 1, 2L, BigDecimal.valueOf(5)));
+
+        assertThat(orderService.getOrderETag(new OrderResponseDto("O1", 1, 2L, BigDecimal.valueOf(5)))).isEqualTo(first);
+        assertThat(orderService.getOrderETag(new OrderResponseDto("O1", 1, 3L, BigDecimal.valueOf(5)))).isNotEqualTo(first);
+        verifyNoInteractions(orderRepository);
+    }
+
     @Test
     @DisplayName("getOrder - order tidak ditemukan -> ORD-404")
     void getOrder_notFound() {
@@ -197,14 +298,12 @@ class OrderServiceImplTest {
     void createOrder_success() {
         OrderRequestDto req = buildRequest("O1", 1, 2L);
 
-        when(orderRepository.existsById("O1")).thenReturn(false);
-
         ItemEntity item = buildItem(1, "Pen", BigDecimal.valueOf(5));
         when(itemRepository.findById("1")).thenReturn(Optional.of(item));
 
-        when(stockService.getRemainingStock(1)).thenReturn(10L);
+        when(stockService.reserveStock(1, 2L)).thenReturn(true);
 
-        when(orderRepository.save(any(OrderEntity.class)))
+        when(orderRepository.persistAndFlush(any(OrderEntity.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
         ResponseMessage<OrderResponseDto> resp = orderService.createOrder(req);
@@ -220,29 +319,57 @@ class OrderServiceImplTest {
         assertThat(dto.getPrice()).isEqualTo(BigDecimal.valueOf(5));
 
         ArgumentCaptor<OrderEntity> captor = ArgumentCaptor.forClass(OrderEntity.class);
-        verify(orderRepository).save(captor.capture());
+        verify(orderRepository).persistAndFlush(captor.capture());
         assertThat(captor.getValue().getOrderNo()).isEqualTo("O1");
         assertThat(captor.getValue().getItem().getId()).isEqualTo(1);
+
+        verify(stockService).reserveStock(1, 2L);
+        verify(itemCache).put(eq(1), eq(BigDecimal.valueOf(5)), anyLong());
+        verify(inventoryMetrics).orderCreated();
+    }
+
+    @Test
+    @DisplayName("createOrder - item ada di cache -> reference + harga cache, tanpa SELECT item")
+    void createOrder_itemCached() {
+        OrderRequestDto req = buildRequest("O1", 1, 2L);
+
+        when(itemCache.getPrice(1)).thenReturn(Optional.of(BigDecimal.valueOf(5)));
+        when(itemRepository.getReferenceById("1")).thenReturn(buildItem(1, null, null));
+        when(stockService.reserveStock(1, 2L)).thenReturn(true);
+        when(orderRepository.persistAndFlush(any(OrderEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ResponseMessage<OrderResponseDto> resp = orderService.createOrder(req);
+
+        OrderResponseDto dto = resp.getData().get(0);
+        assertThat(dto.getItemId()).isEqualTo(1);
+        assertThat(dto.getPrice()).isEqualTo(BigDecimal.valueOf(5));
+        verify(itemRepository, never()).findById(anyString());
     }
 
     @Test
     @DisplayName("createOrder - orderNo sudah ada -> ORD-002")
     void createOrder_orderNoAlreadyExists() {
         OrderRequestDto req = buildRequest("O1", 1, 2L);
-        when(orderRepository.existsById("O1")).thenReturn(true);
+        ItemEntity item = buildItem(1, "Pen", BigDecimal.valueOf(5));
+        when(itemRepository.findById("1")).thenReturn(Optional.of(item));
+        when(stockService.reserveStock(1, 2L)).thenReturn(true);
+        when(orderRepository.persistAndFlush(any(OrderEntity.class)))
+                .thenThrow(new DuplicateKeyException("PRIMARY KEY ON ORDERS(ORDER_NO)"));
 
         assertThatThrownBy(() -> orderService.createOrder(req))
                 .isInstanceOf(ErrorBusinessException.class)
                 .hasMessageContaining("Order number already exists")
                 .extracting("errorNumber")
                 .isEqualTo("ORD-002");
+
+        verify(inventoryMetrics).orderFailed("ORD-002");
     }
 
     @Test
     @DisplayName("createOrder - item tidak ditemukan -> ORD-ITEM-404")
     void createOrder_itemNotFound() {
         OrderRequestDto req = buildRequest("O1", 1, 2L);
-        when(orderRepository.existsById("O1")).thenReturn(false);
         when(itemRepository.findById("1")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> orderService.createOrder(req))
@@ -256,17 +383,89 @@ class OrderServiceImplTest {
     @DisplayName("createOrder - stock tidak cukup -> ORD-001")
     void createOrder_insufficientStock() {
         OrderRequestDto req = buildRequest("O1", 1, 5L);
-        when(orderRepository.existsById("O1")).thenReturn(false);
-
         ItemEntity item = buildItem(1, "Pen", BigDecimal.valueOf(5));
         when(itemRepository.findById("1")).thenReturn(Optional.of(item));
-        when(stockService.getRemainingStock(1)).thenReturn(2L); // < qty
+        when(stockService.reserveStock(1, 5L)).thenReturn(false); // stock < qty
 
         assertThatThrownBy(() -> orderService.createOrder(req))
                 .isInstanceOf(ErrorBusinessException.class)
                 .hasMessageContaining("Insufficient stock")
                 .extracting("errorNumber")
                 .isEqualTo("ORD-001");
+
+        verify(stockService, never()).adjustStock(anyInt(), anyLong());
+        verify(orderRepository, never()).persistAndFlush(any(OrderEntity.class));
+        verify(inventoryMetrics).orderFailed("ORD-001");
+        verify(inventoryMetrics, never()).orderCreated();
+    }
+
+    // ===== createOrders (bulk) =====
+
+    @Test
+    @DisplayName("createOrders - stock dicek sekali per item dengan total qty, insert sekaligus")
+    void createOrders_success() {
+        List<OrderRequestDto> req = List.of(
+                buildRequest("O1", 1, 2L),
+                buildRequest("O2", 1, 3L),
+                buildRequest("O3", 2, 1L));
+
+        ItemEntity pen = buildItem(1, "Pen", BigDecimal.valueOf(5));
+        ItemEntity book = buildItem(2, "Book", BigDecimal.TEN);
+
+        when(orderRepository.findExistingOrderNos(anyCollection())).thenReturn(List.of());
+        when(itemRepository.findByIdIn(anyCollection())).thenReturn(List.of(pen, book));
+        when(stockService.reserveStock(1, 5L)).thenReturn(true);
+        when(stockService.reserveStock(2, 1L)).thenReturn(true);
+
+        ResponseMessage<OrderBulkLineDto> resp = orderService.createOrders(req);
+
+        assertThat(resp.getIsError()).isFalse();
+        assertThat(resp.getMessage()).isEqualTo("Bulk order processed: 3 created, 0 rejected");
+        assertThat(resp.getData()).extracting(OrderBulkLineDto::getIsError).containsOnly(false);
+        assertThat(resp.getData().get(2).getPrice()).isEqualTo(BigDecimal.TEN);
+
+        verify(stockService).reserveStock(1, 5L);
+        verify(stockService).reserveStock(2, 1L);
+        verify(orderRepository).persistAll(argThat((Collection<OrderEntity> orders) -> orders.size() == 3));
+        verify(orderRepository, never()).save(any(OrderEntity.class));
+        verify(orderRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    @DisplayName("createOrders - hasil per baris untuk validasi, duplikat, item tidak ada dan stock kurang")
+    void createOrders_perLineErrors() {
+        List<OrderRequestDto> req = List.of(
+                buildRequest("O1", 1, 0L),     // qty invalid
+                buildRequest("O2", 1, 1L),     // sudah ada di database
+                buildRequest("O3", 9, 1L),     // item tidak ada
+                buildRequest("O4", 2, 10L),    // stock kurang
+                buildRequest("O5", 1, 1L),     // sukses
+                buildRequest("O5", 1, 1L));    // duplikat dalam request
+
+        ItemEntity pen = buildItem(1, "Pen", BigDecimal.valueOf(5));
+        ItemEntity book = buildItem(2, "Book", BigDecimal.TEN);
+
+        when(orderRepository.findExistingOrderNos(anyCollection())).thenReturn(List.of("O2"));
+        when(itemRepository.findByIdIn(anyCollection())).thenReturn(List.of(pen, book));
+        when(stockService.reserveStock(1, 1L)).thenReturn(true);
+        when(stockService.reserveStock(2, 10L)).thenReturn(false);
+
+        ResponseMessage<OrderBulkLineDto> resp = orderService.createOrders(req);
+
+        assertThat(resp.getMessage()).isEqualTo("Bulk order processed: 1 created, 5 rejected");
+        assertThat(resp.getData())
+                .extracting(OrderBulkLineDto::getErrorNumber)
+                .containsExactly("ORD-VAL-003", "ORD-002", "ORD-ITEM-404", "ORD-001", null, "ORD-002");
+        verify(orderRepository).persistAll(argThat((Collection<OrderEntity> orders) -> orders.size() == 1));
+    }
+
+    @Test
+    @DisplayName("createOrders - request kosong -> ORD-VAL-000")
+    void createOrders_empty() {
+        assertThatThrownBy(() -> orderService.createOrders(List.of()))
+                .isInstanceOf(ErrorBusinessException.class)
+                .extracting("errorNumber")
+                .isEqualTo("ORD-VAL-000");
     }
 
     // ===== updateOrder =====
@@ -281,9 +480,9 @@ class OrderServiceImplTest {
 
         ItemEntity newItem = buildItem(2, "Book", BigDecimal.TEN);
 
-        when(orderRepository.findById("O1")).thenReturn(Optional.of(existing));
+        when(orderRepository.findByIdForUpdate("O1")).thenReturn(Optional.of(existing));
         when(itemRepository.findById("2")).thenReturn(Optional.of(newItem));
-        when(stockService.getRemainingStock(2)).thenReturn(5L); // 5 + oldQty(1) = 6 >= 3
+        when(stockService.reserveStock(2, 3L)).thenReturn(true);
 
         when(orderRepository.save(any(OrderEntity.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
@@ -296,13 +495,39 @@ class OrderServiceImplTest {
         assertThat(dto.getItemId()).isEqualTo(2);
         assertThat(dto.getQty()).isEqualTo(3);
         assertThat(dto.getPrice()).isEqualTo(BigDecimal.TEN);
+
+        // old item gets its qty back, new item is reduced by the new qty
+        verify(stockService).adjustStock(1, 1L);
+        verify(stockService).reserveStock(2, 3L);
+        verify(stockService).invalidateCheckpoint(1);
+        verify(stockService).invalidateCheckpoint(2);
+    }
+
+    @Test
+    @DisplayName("updateOrder - item sama, qty berkurang -> selisih dikembalikan ke stock")
+    void updateOrder_sameItemLowerQty() {
+        OrderRequestDto req = buildRequest("O1", 1, 2L);
+
+        ItemEntity item = buildItem(1, "Pen", BigDecimal.valueOf(5));
+        OrderEntity existing = buildOrder("O1", item, 5L, BigDecimal.valueOf(5));
+
+        when(orderRepository.findByIdForUpdate("O1")).thenReturn(Optional.of(existing));
+        when(itemRepository.findById("1")).thenReturn(Optional.of(item));
+        when(orderRepository.save(any(OrderEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ResponseMessage<OrderResponseDto> resp = orderService.updateOrder(req);
+
+        assertThat(resp.getData().get(0).getQty()).isEqualTo(2);
+        verify(stockService).adjustStock(1, 3L);
+        verify(stockService, never()).reserveStock(anyInt(), anyLong());
     }
 
     @Test
     @DisplayName("updateOrder - order tidak ditemukan -> ORD-404")
     void updateOrder_orderNotFound() {
         OrderRequestDto req = buildRequest("OX", 1, 2L);
-        when(orderRepository.findById("OX")).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate("OX")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> orderService.updateOrder(req))
                 .isInstanceOf(ErrorBusinessException.class)
@@ -319,7 +544,7 @@ class OrderServiceImplTest {
         ItemEntity oldItem = buildItem(9, "Old", BigDecimal.ONE);
         OrderEntity existing = buildOrder("O1", oldItem, 1L, BigDecimal.ONE);
 
-        when(orderRepository.findById("O1")).thenReturn(Optional.of(existing));
+        when(orderRepository.findByIdForUpdate("O1")).thenReturn(Optional.of(existing));
         when(itemRepository.findById("1")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> orderService.updateOrder(req))
@@ -337,9 +562,9 @@ class OrderServiceImplTest {
         ItemEntity item = buildItem(1, "Pen", BigDecimal.valueOf(5));
         OrderEntity existing = buildOrder("O1", item, 5L, BigDecimal.valueOf(5));
 
-        when(orderRepository.findById("O1")).thenReturn(Optional.of(existing));
+        when(orderRepository.findByIdForUpdate("O1")).thenReturn(Optional.of(existing));
         when(itemRepository.findById("1")).thenReturn(Optional.of(item));
-        when(stockService.getRemainingStock(1)).thenReturn(1L); // 1 + 5 < 10
+        when(stockService.reserveStock(1, 5L)).thenReturn(false); // hanya selisih 10 - 5 yang di-reserve
 
         assertThatThrownBy(() -> orderService.updateOrder(req))
                 .isInstanceOf(ErrorBusinessException.class)
@@ -356,12 +581,14 @@ class OrderServiceImplTest {
         ItemEntity item = buildItem(1, "Pen", BigDecimal.valueOf(5));
         OrderEntity existing = buildOrder("O1", item, 2L, BigDecimal.valueOf(5));
 
-        when(orderRepository.findById("O1")).thenReturn(Optional.of(existing));
+        when(orderRepository.findByIdForUpdate("O1")).thenReturn(Optional.of(existing));
 
         ResponseMessage<Object> resp = orderService.deleteOrder("O1");
 
         assertThat(resp.getIsError()).isFalse();
         assertThat(resp.getMessage()).isEqualTo("Order delete successfully");
+        verify(stockService).adjustStock(1, 2L);
+        verify(stockService).invalidateCheckpoint(1);
         verify(orderRepository).delete(existing);
     }
 
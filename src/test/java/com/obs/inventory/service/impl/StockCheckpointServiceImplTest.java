@@ -0,0 +1,172 @@
+package com.obs.inventory.service.impl;
+
+import com.obs.inventory.cache.StockCache;
+import com.obs.inventory.dto.StockCheckpointResultDto;
+import com.obs.inventory.dto.response.ResponseMessage;
+import com.obs.inventory.repository.ItemRepository;
+import com.obs.inventory.repository.StockBalanceRepository;
+import com.obs.inventory.repository.StockCheckpointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockCheckpointServiceImplTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private StockBalanceRepository stockBalanceRepository;
+
+    @Mock
+    private StockCheckpointRepository stockCheckpointRepository;
+
+    @Spy
+    private StockCache stockCache = new StockCache();
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private StockCheckpointServiceImpl stockCheckpointService;
+
+    private final ExecutorService checkpointExecutor = Executors.newFixedThreadPool(2);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(stockCheckpointService, "checkpointExecutor", checkpointExecutor);
+        ReflectionTestUtils.setField(stockCheckpointService, "enabled", true);
+        ReflectionTestUtils.setField(stockCheckpointService, "chunkSize", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        checkpointExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("createCheckpoints - item id 1..25 dipecah jadi 3 chunk")
+    void createCheckpoints_splitsIdRangeIntoChunks() {
+        when(itemRepository.findMinId()).thenReturn(1);
+        when(itemRepository.findMaxId()).thenReturn(25);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        when(stockBalanceRepository.lockBalances(anyInt(), anyInt()))
+                .thenAnswer(invocation -> IntStream.rangeClosed(invocation.<Integer>getArgument(0),
+                        invocation.<Integer>getArgument(1)).boxed().toList());
+        when(stockCheckpointRepository.nextLedgerSeq()).thenReturn(100L);
+        when(stockCheckpointRepository.rollForward(anyCollection(), eq(100L), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> invocation.<List<Integer>>getArgument(0).size());
+
+        ResponseMessage<StockCheckpointResultDto> resp = stockCheckpointService.createCheckpoints();
+
+        assertThat(resp.getIsError()).isFalse();
+        assertThat(resp.getMessage()).isEqualTo("Stock checkpoint created successfully");
+        StockCheckpointResultDto result = resp.getData().get(0);
+        assertThat(result.getChunks()).isEqualTo(3);
+        assertThat(result.getItemsCheckpointed()).isEqualTo(25L);
+        assertThat(result.getBalancesRepaired()).isZero();
+
+        verify(stockBalanceRepository).lockBalances(1, 10);
+        verify(stockBalanceRepository).lockBalances(11, 20);
+        verify(stockBalanceRepository).lockBalances(21, 25);
+        verify(stockCheckpointRepository).rollForward(eq(IntStream.rangeClosed(21, 25).boxed().toList()), eq(100L),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("createCheckpoints - balance yang beda dengan checkpoint diperbaiki, cache ikut diperbarui")
+    void createCheckpoints_repairsDriftedBalance() {
+        when(itemRepository.findMinId()).thenReturn(1);
+        when(itemRepository.findMaxId()).thenReturn(5);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        when(stockBalanceRepository.lockBalances(1, 5)).thenReturn(List.of(1, 3));
+        when(stockCheckpointRepository.nextLedgerSeq()).thenReturn(100L);
+        when(stockCheckpointRepository.rollForward(anyCollection(), eq(100L), any(LocalDateTime.class))).thenReturn(2);
+        when(stockBalanceRepository.findDrift(List.of(1, 3)))
+                .thenReturn(List.<Object[]>of(new Object[]{3, 40L, 45L}));
+        when(stockBalanceRepository.findBalanceByItemId(3)).thenReturn(balanceView(40L, 8L));
+        stockCache.put(3, 45L, 7L);
+
+        ResponseMessage<StockCheckpointResultDto> resp = stockCheckpointService.createCheckpoints();
+
+        assertThat(resp.getData().get(0).getBalancesRepaired()).isEqualTo(1L);
+        verify(stockBalanceRepository).setOnHand(3, 40L);
+        verify(stockBalanceRepository, never()).setOnHand(eq(1), anyLong());
+        assertThat(stockCache.get(3)).hasValue(40L);
+    }
+
+    @Test
+    @DisplayName("createCheckpoints - chunk tanpa balance row tidak ambil high-water mark dan tidak merge")
+    void createCheckpoints_chunkWithoutBalances() {
+        when(itemRepository.findMinId()).thenReturn(1);
+        when(itemRepository.findMaxId()).thenReturn(5);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        when(stockBalanceRepository.lockBalances(1, 5)).thenReturn(List.of());
+
+        ResponseMessage<StockCheckpointResultDto> resp = stockCheckpointService.createCheckpoints();
+
+        assertThat(resp.getData().get(0).getItemsCheckpointed()).isZero();
+        verifyNoInteractions(stockCheckpointRepository);
+    }
+
+    @Test
+    @DisplayName("createCheckpoints - belum ada item, tidak ada chunk")
+    void createCheckpoints_noItems() {
+        when(itemRepository.findMinId()).thenReturn(null);
+        when(itemRepository.findMaxId()).thenReturn(null);
+
+        ResponseMessage<StockCheckpointResultDto> resp = stockCheckpointService.createCheckpoints();
+
+        assertThat(resp.getData().get(0).getChunks()).isZero();
+        verifyNoInteractions(stockBalanceRepository, stockCheckpointRepository, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("scheduledCheckpoint - disabled tidak menjalankan apa pun")
+    void scheduledCheckpoint_disabled() {
+        ReflectionTestUtils.setField(stockCheckpointService, "enabled", false);
+
+        stockCheckpointService.scheduledCheckpoint();
+
+        verifyNoInteractions(itemRepository, stockCheckpointRepository, transactionTemplate);
+    }
+
+    // ===== helper =====
+
+    private StockBalanceRepository.BalanceView balanceView(long onHand, long version) {
+        return new StockBalanceRepository.BalanceView() {
+            @Override
+            public Long getOnHand() {
+                return onHand;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
@@ -1,15 +1,33 @@
 package com.obs.inventory.service.impl;
 
+import com.obs.inventory.cache.StockCache;
+import com.obs.inventory.dto.StockCacheStatsDto;
+import com.obs.inventory.dto.response.ResponseMessage;
+import com.obs.inventory.entity.StockBalanceEntity;
+import com.obs.inventory.metrics.InventoryMetrics;
 import com.obs.inventory.repository.InventoryRepository;
 import com.obs.inventory.repository.OrderRepository;
+import com.obs.inventory.repository.StockBalanceRepository;
+import com.obs.inventory.repository.StockCheckpointRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,43 +39,391 @@ class StockServiceImplTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private StockBalanceRepository stockBalanceRepository;
+
+    @Mock
+    private StockCheckpointRepository stockCheckpointRepository;
+
+    @Spy
+    private StockCache stockCache = new StockCache();
+
+    @Spy
+    private InventoryMetrics inventoryMetrics = new InventoryMetrics(new SimpleMeterRegistry());
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private StockServiceImpl stockService;
 
+    // ===== helper =====
+
+    private InventoryRepository.StockSummary summary(long topUp, long withdraw, long ordered) {
+        return new InventoryRepository.StockSummary() {
+            @Override
+            public Number getTopUp() {
+                return topUp;
+            }
+
+            @Override
+            public Number getWithdraw() {
+                return withdraw;
+            }
+
+            @Override
+            public Number getOrdered() {
+                return ordered;
+            }
+        };
+    }
+
+    private void runTransactionCallbacks() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+    }
+
+    // ===== getRemainingStock =====
+
+    @Test
+    @DisplayName("getRemainingStock - baca dari stock_balances tanpa agregasi ledger")
+    void getRemainingStock_fromBalance() {
+        runTransactionCallbacks();
+        Integer itemId = 5;
+        StockBalanceEntity balance = StockBalanceEntity.builder()
+                .itemId(itemId)
+                .onHand(30L)
+                .version(3L)
+                .build();
+
+        when(stockBalanceRepository.findById(itemId)).thenReturn(Optional.of(balance));
+
+        long remaining = stockService.getRemainingStock(itemId);
+
+        assertThat(remaining).isEqualTo(30L);
+        verifyNoInteractions(inventoryRepository, orderRepository);
+        verify(inventoryMetrics).recordStockLookup(eq(false), anyLong());
+    }
+
     @Test
-    @DisplayName("getRemainingStock - hitung stok dengan top up, withdraw, dan order")
+    @DisplayName("getRemainingStock - balance belum ada, hitung dari ledger (top up, withdraw, order)")
     void getRemainingStock_normalCase() {
+        runTransactionCallbacks();
         Integer itemId = 5;
 
         // top up 45, withdraw 10, order 5  -> 45 - 10 - 5 = 30
-        when(inventoryRepository.sumQtyByItemIdAndType(itemId, "T")).thenReturn(45L);
-        when(inventoryRepository.sumQtyByItemIdAndType(itemId, "W")).thenReturn(10L);
-        when(orderRepository.sumOrderedQtyByItemId(itemId)).thenReturn(5L);
+        when(stockBalanceRepository.findById(itemId)).thenReturn(Optional.empty());
+        when(inventoryRepository.sumStockByItemId(itemId)).thenReturn(summary(45L, 10L, 5L));
+        when(stockBalanceRepository.save(any(StockBalanceEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
 
         long remaining = stockService.getRemainingStock(itemId);
 
         assertThat(remaining).isEqualTo(30L);
 
-        verify(inventoryRepository).sumQtyByItemIdAndType(itemId, "T");
-        verify(inventoryRepository).sumQtyByItemIdAndType(itemId, "W");
-        verify(orderRepository).sumOrderedQtyByItemId(itemId);
+        // satu round trip untuk top up, withdraw dan order
+        verify(inventoryRepository).sumStockByItemId(itemId);
+        verifyNoInteractions(orderRepository);
+
+        ArgumentCaptor<StockBalanceEntity> captor = ArgumentCaptor.forClass(StockBalanceEntity.class);
+        verify(stockBalanceRepository).save(captor.capture());
+        assertThat(captor.getValue().getItemId()).isEqualTo(itemId);
+        assertThat(captor.getValue().getOnHand()).isEqualTo(30L);
     }
 
     @Test
     @DisplayName("getRemainingStock - tidak ada inventory movement dan order")
     void getRemainingStock_zeroCase() {
+        runTransactionCallbacks();
         Integer itemId = 1;
 
-        when(inventoryRepository.sumQtyByItemIdAndType(itemId, "T")).thenReturn(0L);
-        when(inventoryRepository.sumQtyByItemIdAndType(itemId, "W")).thenReturn(0L);
-        when(orderRepository.sumOrderedQtyByItemId(itemId)).thenReturn(0L);
+        when(stockBalanceRepository.findById(itemId)).thenReturn(Optional.empty());
+        when(inventoryRepository.sumStockByItemId(itemId)).thenReturn(summary(0L, 0L, 0L));
+        when(stockBalanceRepository.save(any(StockBalanceEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
 
         long remaining = stockService.getRemainingStock(itemId);
 
         assertThat(remaining).isEqualTo(0L);
 
-        verify(inventoryRepository).sumQtyByItemIdAndType(itemId, "T");
-        verify(inventoryRepository).sumQtyByItemIdAndType(itemId, "W");
-        verify(orderRepository).sumOrderedQtyByItemId(itemId);
+        // satu round trip untuk top up, withdraw dan order
+        verify(inventoryRepository).sumStockByItemId(itemId);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("getRemainingStock - hit cache tidak menyentuh database")
+    void getRemainingStock_cacheHit() {
+        stockCache.put(5, 12L, 2L);
+
+        long remaining = stockService.getRemainingStock(5);
+
+        assertThat(remaining).isEqualTo(12L);
+        verifyNoInteractions(stockBalanceRepository, inventoryRepository, orderRepository, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("getRemainingStock bulk - semua hit cache, tanpa transaksi dan tanpa query")
+    void getRemainingStock_bulkAllCached() {
+        stockCache.put(1, 4L, 0L);
+        stockCache.put(2, 6L, 0L);
+
+        Map<Integer, Long> remaining = stockService.getRemainingStock(List.of(1, 2));
+
+        assertThat(remaining).containsExactlyInAnyOrderEntriesOf(Map.of(1, 4L, 2, 6L));
+        verifyNoInteractions(stockBalanceRepository, inventoryRepository, orderRepository, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("getRemainingStock - miss, hasil dari database masuk cache")
+    void getRemainingStock_missPopulatesCache() {
+        runTransactionCallbacks();
+        StockBalanceEntity balance = StockBalanceEntity.builder()
+                .itemId(5)
+                .onHand(30L)
+                .version(3L)
+                .build();
+        when(stockBalanceRepository.findById(5)).thenReturn(Optional.of(balance));
+
+        stockService.getRemainingStock(5);
+        long remaining = stockService.getRemainingStock(5);
+
+        assertThat(remaining).isEqualTo(30L);
+        verify(stockBalanceRepository, times(1)).findById(5);
+        assertThat(stockCache.stats().getHits()).isEqualTo(1L);
+        assertThat(stockCache.stats().getMisses()).isEqualTo(1L);
+    }
+
+    // ===== getStockVersion =====
+
+    @Test
+    @DisplayName("getStockVersion - versi dari cache tanpa query dan tanpa hitungan hit/miss")
+    void getStockVersion_cacheHit() {
+        stockCache.put(5, 12L, 7L);
+
+        assertThat(stockService.getStockVersion(5)).isEqualTo(7L);
+        verifyNoInteractions(stockBalanceRepository, transactionTemplate);
+        assertThat(stockCache.stats().getHits()).isZero();
+    }
+
+    @Test
+    @DisplayName("getStockVersion - miss baca versi balance, -1 jika balance belum ada")
+    void getStockVersion_fromBalanceRow() {
+        runTransactionCallbacks();
+        when(stockBalanceRepository.findBalanceByItemId(5)).thenReturn(new StockBalanceRepository.BalanceView() {
+            @Override
+            public Long getOnHand() {
+                return 30L;
+            }
+
+            @Override
+            public Long getVersion() {
+                return 3L;
+            }
+        });
+        when(stockBalanceRepository.findBalanceByItemId(6)).thenReturn(null);
+
+        assertThat(stockService.getStockVersion(5)).isEqualTo(3L);
+        assertThat(stockService.getStockVersion(6)).isEqualTo(-1L);
+        verify(transactionTemplate, times(2)).execute(any());
+        verifyNoInteractions(inventoryRepository, orderRepository);
+    }
+
+    // ===== getRemainingStock (bulk) =====
+
+    @Test
+    @DisplayName("getRemainingStock bulk - campuran balance yang ada dan yang dihitung dari ledger")
+    void getRemainingStock_bulk() {
+        runTransactionCallbacks();
+        List<Integer> itemIds = List.of(1, 2, 3);
+        StockBalanceEntity balance = StockBalanceEntity.builder()
+                .itemId(1)
+                .onHand(7L)
+                .version(0L)
+                .build();
+
+        when(stockBalanceRepository.findAllById(itemIds)).thenReturn(List.of(balance));
+        when(inventoryRepository.sumNetQtyByItemIds(List.of(2, 3)))
+                .thenReturn(List.<Object[]>of(new Object[]{2, 20L}));
+        when(orderRepository.sumOrderedQtyByItemIds(List.of(2, 3)))
+                .thenReturn(List.<Object[]>of(new Object[]{2, 5L}));
+
+        Map<Integer, Long> remaining = stockService.getRemainingStock(itemIds);
+
+        assertThat(remaining).containsExactlyInAnyOrderEntriesOf(Map.of(1, 7L, 2, 15L, 3, 0L));
+        verify(stockBalanceRepository).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("getRemainingStock bulk - itemId duplikat hanya di-query sekali, urutan request dipertahankan")
+    void getRemainingStock_bulkDuplicates() {
+        runTransactionCallbacks();
+        StockBalanceEntity first = StockBalanceEntity.builder().itemId(2).onHand(4L).version(0L).build();
+        StockBalanceEntity second = StockBalanceEntity.builder().itemId(1).onHand(9L).version(0L).build();
+
+        when(stockBalanceRepository.findAllById(List.of(2, 1))).thenReturn(List.of(first, second));
+
+        Map<Integer, Long> remaining = stockService.getRemainingStock(List.of(2, 1, 2, 1, 2));
+
+        assertThat(remaining).containsExactlyInAnyOrderEntriesOf(Map.of(1, 9L, 2, 4L));
+        verify(stockBalanceRepository).findAllById(List.of(2, 1));
+        verifyNoInteractions(inventoryRepository, orderRepository);
+    }
+
+    @Test
+    @DisplayName("getRemainingStock bulk - list kosong tidak query sama sekali")
+    void getRemainingStock_bulkEmpty() {
+        Map<Integer, Long> remaining = stockService.getRemainingStock(List.of());
+
+        assertThat(remaining).isEmpty();
+        verifyNoInteractions(stockBalanceRepository, inventoryRepository, orderRepository);
+    }
+
+    @Test
+    @DisplayName("invalidateCheckpoint - lock balance row dulu, lalu hapus checkpoint item dalam satu statement")
+    void invalidateCheckpoint_deletesCheckpoint() {
+        stockService.invalidateCheckpoint(5);
+
+        InOrder order = inOrder(stockBalanceRepository, stockCheckpointRepository);
+        order.verify(stockBalanceRepository).lockBalances(5, 5);
+        order.verify(stockCheckpointRepository).deleteByItemId(5);
+        verify(stockCheckpointRepository, never()).existsById(anyInt());
+    }
+
+    // ===== reserveStock =====
+
+    @Test
+    @DisplayName("reserveStock - stock cukup, conditional decrement berhasil")
+    void reserveStock_success() {
+        when(stockBalanceRepository.reserve(5, 3L)).thenReturn(1);
+
+        assertThat(stockService.reserveStock(5, 3L)).isTrue();
+
+        verify(stockBalanceRepository, never()).existsById(anyInt());
+        verifyNoInteractions(inventoryRepository, orderRepository);
+    }
+
+    @Test
+    @DisplayName("reserveStock - berhasil, balance terbaru dipublish ke cache")
+    void reserveStock_publishesBalance() {
+        StockBalanceRepository.BalanceView view = mock(StockBalanceRepository.BalanceView.class);
+        when(view.getOnHand()).thenReturn(7L);
+        when(view.getVersion()).thenReturn(4L);
+        when(stockBalanceRepository.reserve(5, 3L)).thenReturn(1);
+        when(stockBalanceRepository.findBalanceByItemId(5)).thenReturn(view);
+
+        assertThat(stockService.reserveStock(5, 3L)).isTrue();
+
+        assertThat(stockCache.get(5)).hasValue(7L);
+    }
+
+    @Test
+    @DisplayName("reserveStock - cache sudah di bawah qty, langsung ditolak tanpa lock row")
+    void reserveStock_cacheFastFail() {
+        stockCache.put(5, 2L, 1L);
+
+        assertThat(stockService.reserveStock(5, 3L)).isFalse();
+
+        verifyNoInteractions(stockBalanceRepository);
+    }
+
+    @Test
+    @DisplayName("reserveStock - stock tidak cukup")
+    void reserveStock_insufficient() {
+        when(stockBalanceRepository.reserve(5, 3L)).thenReturn(0);
+        when(stockBalanceRepository.existsById(5)).thenReturn(true);
+
+        assertThat(stockService.reserveStock(5, 3L)).isFalse();
+
+        verify(stockBalanceRepository, never()).save(any(StockBalanceEntity.class));
+    }
+
+    @Test
+    @DisplayName("reserveStock - balance belum ada, inisialisasi dari ledger lalu reserve ulang")
+    void reserveStock_initBalance() {
+        when(stockBalanceRepository.reserve(5, 3L)).thenReturn(0, 1);
+        when(stockBalanceRepository.existsById(5)).thenReturn(false);
+        when(inventoryRepository.sumStockByItemId(5)).thenReturn(summary(10L, 0L, 0L));
+        when(stockBalanceRepository.save(any(StockBalanceEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(stockService.reserveStock(5, 3L)).isTrue();
+
+        verify(stockBalanceRepository, times(2)).reserve(5, 3L);
+    }
+
+    // ===== adjustStock =====
+
+    @Test
+    @DisplayName("adjustStock - balance sudah ada, cukup increment atomic")
+    void adjustStock_existingBalance() {
+        when(stockBalanceRepository.addOnHand(5, -3L)).thenReturn(1);
+
+        stockService.adjustStock(5, -3L);
+
+        verify(stockBalanceRepository).addOnHand(5, -3L);
+        verify(stockBalanceRepository, never()).save(any(StockBalanceEntity.class));
+        verifyNoInteractions(inventoryRepository, orderRepository);
+    }
+
+    @Test
+    @DisplayName("adjustStock - balance belum ada, inisialisasi dari ledger + delta")
+    void adjustStock_initBalance() {
+        when(stockBalanceRepository.addOnHand(5, 10L)).thenReturn(0);
+        when(inventoryRepository.sumStockByItemId(5)).thenReturn(summary(45L, 10L, 5L));
+        when(stockBalanceRepository.save(any(StockBalanceEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        stockService.adjustStock(5, 10L);
+
+        ArgumentCaptor<StockBalanceEntity> captor = ArgumentCaptor.forClass(StockBalanceEntity.class);
+        verify(stockBalanceRepository).save(captor.capture());
+        assertThat(captor.getValue().getOnHand()).isEqualTo(40L);
+    }
+
+    @Test
+    @DisplayName("adjustStock - balance dibuat transaksi lain selama menunggu lock item -> increment, tanpa insert")
+    void adjustStock_balanceCreatedConcurrently() {
+        when(stockBalanceRepository.addOnHand(5, 10L)).thenReturn(0, 1);
+        when(stockBalanceRepository.existsById(5)).thenReturn(true);
+
+        stockService.adjustStock(5, 10L);
+
+        verify(stockBalanceRepository).lockItems(List.of(5));
+        verify(stockBalanceRepository, times(2)).addOnHand(5, 10L);
+        verify(stockBalanceRepository, never()).save(any(StockBalanceEntity.class));
+        verifyNoInteractions(inventoryRepository, orderRepository);
+    }
+
+    // ===== cache =====
+
+    @Test
+    @DisplayName("rebuildCache - load semua balance ke cache")
+    void rebuildCache_loadsAllBalances() {
+        when(stockBalanceRepository.findAll()).thenReturn(List.of(
+                StockBalanceEntity.builder().itemId(1).onHand(5L).version(0L).build(),
+                StockBalanceEntity.builder().itemId(2).onHand(9L).version(2L).build()));
+
+        ResponseMessage<StockCacheStatsDto> resp = stockService.rebuildCache();
+
+        assertThat(resp.getIsError()).isFalse();
+        assertThat(resp.getMessage()).isEqualTo("Stock cache rebuilt successfully");
+        StockCacheStatsDto stats = resp.getData().get(0);
+        assertThat(stats.getSize()).isEqualTo(2);
+        assertThat(stats.getRebuilds()).isEqualTo(1L);
+        assertThat(stockCache.get(2)).hasValue(9L);
+    }
+
+    @Test
+    @DisplayName("rebuildCache - entry item yang balance-nya sudah tidak ada ikut hilang")
+    void rebuildCache_dropsStaleEntries() {
+        stockCache.put(3, 11L, 4L);
+        when(stockBalanceRepository.findAll()).thenReturn(List.of(
+                StockBalanceEntity.builder().itemId(1).onHand(5L).version(0L).build()));
+
+        stockService.rebuildCache();
+
+        assertThat(stockCache.get(3)).isEmpty();
+        assertThat(stockCache.get(1)).hasValue(5L);
     }
-}
\ No newline at end of file
+}